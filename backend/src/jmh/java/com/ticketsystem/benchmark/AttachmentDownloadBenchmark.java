@@ -0,0 +1,112 @@
+package com.ticketsystem.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of sending an attachment body to a loopback socket: the naive InputStream copy
+ * through a heap buffer, {@link FileChannel#transferTo} into a stream-wrapped channel
+ * (the download fallback when the connector has no sendfile), and transferTo straight
+ * into the socket channel, which the kernel serves with sendfile.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class AttachmentDownloadBenchmark {
+
+    @Param({"65536", "16777216"})
+    public int size;
+
+    private Path file;
+    private ServerSocketChannel server;
+    private SocketChannel client;
+    private OutputStream clientStream;
+    private WritableByteChannel clientStreamChannel;
+    private Thread drain;
+
+    @Setup
+    public void setup() throws IOException {
+        byte[] content = new byte[size];
+        new Random(42).nextBytes(content);
+        file = Files.createTempFile("attachment-download", ".bin");
+        Files.write(file, content);
+
+        server = ServerSocketChannel.open().bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+        client = SocketChannel.open(server.getLocalAddress());
+        SocketChannel peer = server.accept();
+        drain = new Thread(() -> discard(peer), "download-drain");
+        drain.setDaemon(true);
+        drain.start();
+
+        clientStream = Channels.newOutputStream(client);
+        clientStreamChannel = Channels.newChannel(clientStream);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException, InterruptedException {
+        client.close();
+        drain.join(TimeUnit.SECONDS.toMillis(5));
+        server.close();
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public void inputStreamCopy() throws IOException {
+        try (InputStream in = Files.newInputStream(file)) {
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                clientStream.write(buffer, 0, read);
+            }
+        }
+    }
+
+    @Benchmark
+    public void transferToStream() throws IOException {
+        transfer(clientStreamChannel);
+    }
+
+    @Benchmark
+    public void transferToSocket() throws IOException {
+        transfer(client);
+    }
+
+    // Helper methods
+    private void transfer(WritableByteChannel target) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long position = 0;
+            while (position < size) {
+                position += channel.transferTo(position, size - position, target);
+            }
+        }
+    }
+
+    private static void discard(SocketChannel peer) {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 16);
+        try (peer) {
+            while (peer.read(buffer) != -1) {
+                buffer.clear();
+            }
+        } catch (IOException e) {
+            // Closed by tearDown
+        }
+    }
+}
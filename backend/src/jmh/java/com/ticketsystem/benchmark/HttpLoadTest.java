@@ -0,0 +1,173 @@
+package com.ticketsystem.benchmark;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Closed-loop HTTP load against a running backend, for comparing thread modes and pool
+ * sizes. Each of {@code --concurrency} workers sends one authenticated GET after another
+ * for {@code --seconds}, after a warmup, and the run prints throughput, latency
+ * percentiles and the count of each status code.
+ *
+ * <pre>
+ * mvn -Pbenchmarks test-compile exec:exec -Dbenchmark.main=com.ticketsystem.benchmark.HttpLoadTest \
+ *     -Dbenchmark.args="--concurrency 200 --seconds 30 --path /tickets?size=20"
+ * </pre>
+ *
+ * Rate limiting and adaptive load shedding should be switched off on the server, or the
+ * run measures them instead of the thread mode.
+ */
+public class HttpLoadTest {
+
+    private static final Pattern TOKEN = Pattern.compile("\"token\"\\s*:\\s*\"([^\"]+)\"");
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parse(args);
+        String baseUrl = options.getOrDefault("url", "http://localhost:8080/api");
+        String path = options.getOrDefault("path", "/tickets?size=20");
+        int concurrency = Integer.parseInt(options.getOrDefault("concurrency", "100"));
+        int seconds = Integer.parseInt(options.getOrDefault("seconds", "30"));
+        int warmupSeconds = Integer.parseInt(options.getOrDefault("warmup", "10"));
+        String email = options.getOrDefault("email", "loadtest@example.com");
+        String password = options.getOrDefault("password", "LoadTest123!");
+
+        HttpClient client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        String token = signIn(client, baseUrl, email, password);
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Authorization", "Bearer " + token)
+                .timeout(Duration.ofSeconds(30))
+                .GET()
+                .build();
+
+        long warmupEnd = System.nanoTime() + TimeUnit.SECONDS.toNanos(warmupSeconds);
+        long end = warmupEnd + TimeUnit.SECONDS.toNanos(seconds);
+        List<Worker> workers = new ArrayList<>();
+        for (int i = 0; i < concurrency; i++) {
+            Worker worker = new Worker(client, request, warmupEnd, end);
+            workers.add(worker);
+            worker.start();
+        }
+        for (Worker worker : workers) {
+            worker.join();
+        }
+        report(path, concurrency, seconds, workers);
+    }
+
+    // Helper methods
+    private static String signIn(HttpClient client, String baseUrl, String email, String password)
+            throws IOException, InterruptedException {
+        String credentials = String.format("{\"email\":\"%s\",\"password\":\"%s\"}", email, password);
+        HttpResponse<String> response = post(client, baseUrl + "/auth/login", credentials);
+        if (response.statusCode() != 200) {
+            response = post(client, baseUrl + "/auth/register", String.format(
+                "{\"email\":\"%s\",\"password\":\"%s\",\"firstName\":\"Load\",\"lastName\":\"Test\"}", email, password));
+        }
+        Matcher matcher = TOKEN.matcher(response.body());
+        if (response.statusCode() != 200 || !matcher.find()) {
+            throw new IllegalStateException("Sign-in failed with " + response.statusCode() + ": " + response.body());
+        }
+        return matcher.group(1);
+    }
+
+    private static HttpResponse<String> post(HttpClient client, String url, String json)
+            throws IOException, InterruptedException {
+        return client.send(HttpRequest.newBuilder(URI.create(url))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static void report(String path, int concurrency, int seconds, List<Worker> workers) {
+        int total = workers.stream().mapToInt(worker -> worker.count).sum();
+        long[] latencies = new long[total];
+        int offset = 0;
+        Map<Integer, Integer> statuses = new TreeMap<>();
+        for (Worker worker : workers) {
+            System.arraycopy(worker.latencies, 0, latencies, offset, worker.count);
+            offset += worker.count;
+            worker.statuses.forEach((status, count) -> statuses.merge(status, count, Integer::sum));
+        }
+        Arrays.sort(latencies);
+
+        System.out.printf("GET %s, %d workers, %d s%n", path, concurrency, seconds);
+        System.out.printf("  throughput  %.1f req/s%n", total / (double) seconds);
+        System.out.printf("  latency ms  p50 %.1f  p90 %.1f  p99 %.1f  max %.1f%n",
+            percentile(latencies, 0.50), percentile(latencies, 0.90),
+            percentile(latencies, 0.99), percentile(latencies, 1.0));
+        System.out.printf("  statuses    %s%n", statuses);
+    }
+
+    private static double percentile(long[] sorted, double fraction) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.min(sorted.length - 1, Math.ceil(fraction * sorted.length) - 1);
+        return sorted[Math.max(index, 0)] / 1_000_000.0;
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            if (!args[i].startsWith("--")) {
+                throw new IllegalArgumentException("Expected --option value pairs, got " + args[i]);
+            }
+            options.put(args[i].substring(2), args[i + 1]);
+        }
+        return options;
+    }
+
+    private static final class Worker extends Thread {
+        private final HttpClient client;
+        private final HttpRequest request;
+        private final long warmupEnd;
+        private final long end;
+        private final Map<Integer, Integer> statuses = new HashMap<>();
+        private long[] latencies = new long[1024];
+        private int count;
+
+        private Worker(HttpClient client, HttpRequest request, long warmupEnd, long end) {
+            this.client = client;
+            this.request = request;
+            this.warmupEnd = warmupEnd;
+            this.end = end;
+        }
+
+        @Override
+        public void run() {
+            long now;
+            while ((now = System.nanoTime()) < end) {
+                int status;
+                try {
+                    status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                } catch (IOException e) {
+                    status = -1;
+                } catch (InterruptedException e) {
+                    return;
+                }
+                if (now < warmupEnd) {
+                    continue;
+                }
+                statuses.merge(status, 1, Integer::sum);
+                if (count == latencies.length) {
+                    latencies = Arrays.copyOf(latencies, count * 2);
+                }
+                latencies[count++] = System.nanoTime() - now;
+            }
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.ticketsystem.benchmark;
+
+import com.ticketsystem.security.JwtUtil;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of checking a bearer token on each request: building a key and parser per call
+ * (the old behaviour), parsing with a shared parser, and {@link JwtUtil#verify} hitting
+ * its verified-claims cache.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class JwtVerifyBenchmark {
+
+    private static final String SECRET = "benchmark-secret-benchmark-secret-benchmark-secret-0123456789";
+
+    private JwtUtil jwtUtil;
+    private JwtParser sharedParser;
+    private String token;
+
+    @Setup
+    public void setup() {
+        jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secret", SECRET);
+        ReflectionTestUtils.setField(jwtUtil, "expiration", TimeUnit.HOURS.toMillis(1));
+        ReflectionTestUtils.setField(jwtUtil, "verifiedCacheSize", 10_000L);
+        ReflectionTestUtils.invokeMethod(jwtUtil, "init");
+        sharedParser = (JwtParser) ReflectionTestUtils.getField(jwtUtil, "parser");
+        token = jwtUtil.generateToken(new User("agent@example.com", "unused", List.of()));
+    }
+
+    @Benchmark
+    public Claims parsePerCall() {
+        return Jwts.parser()
+                .verifyWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)))
+                .build()
+                .parseSignedClaims(token)
+                .getPayload();
+    }
+
+    @Benchmark
+    public Claims parseWithSharedParser() {
+        return sharedParser.parseSignedClaims(token).getPayload();
+    }
+
+    @Benchmark
+    public Claims cachedVerify() {
+        return jwtUtil.verify(token);
+    }
+}
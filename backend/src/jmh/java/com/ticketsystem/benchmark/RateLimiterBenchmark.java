@@ -0,0 +1,66 @@
+package com.ticketsystem.benchmark;
+
+import com.ticketsystem.security.RateLimiter;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of a permitted {@link RateLimiter} acquire: one hot user, users spread over many
+ * buckets, and sign-in attempts that each create a fresh anonymous bucket. Limits are
+ * set high enough that nothing is rejected.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class RateLimiterBenchmark {
+
+    private static final int USERS = 10_000;
+
+    private RateLimiter rateLimiter;
+    private UUID[] userIds;
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        int next;
+        long attempt;
+    }
+
+    @Setup
+    public void setup() {
+        rateLimiter = new RateLimiter();
+        ReflectionTestUtils.setField(rateLimiter, "enabled", true);
+        ReflectionTestUtils.setField(rateLimiter, "maxAnonymousKeys", 100_000L);
+        ReflectionTestUtils.setField(rateLimiter, "maxUserKeys", 100_000L);
+        for (String limit : new String[] {"credentials", "client", "user"}) {
+            ReflectionTestUtils.setField(rateLimiter, limit + "Capacity", Integer.MAX_VALUE);
+            ReflectionTestUtils.setField(rateLimiter, limit + "PerMinute", Integer.MAX_VALUE);
+        }
+        ReflectionTestUtils.invokeMethod(rateLimiter, "init");
+
+        userIds = new UUID[USERS];
+        for (int i = 0; i < USERS; i++) {
+            userIds[i] = UUID.randomUUID();
+        }
+    }
+
+    @Benchmark
+    public void singleUser() {
+        rateLimiter.acquireForUser(userIds[0]);
+    }
+
+    @Benchmark
+    public void manyUsers(Cursor cursor) {
+        rateLimiter.acquireForUser(userIds[cursor.next]);
+        cursor.next = (cursor.next + 1) % USERS;
+    }
+
+    @Benchmark
+    public void newCredentialKeys(Cursor cursor) {
+        rateLimiter.acquireForCredentials("203.0.113.7", "user" + cursor.attempt++ + "@example.com");
+    }
+}
@@ -0,0 +1,22 @@
+package com.ticketsystem.aspect;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Coalesces concurrent calls with equal arguments into one invocation whose result is
+ * shared with every caller. Results are shared between threads, so only use it on
+ * read-only methods that return immutable values or DTOs, not managed entities with
+ * lazy associations.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface SingleFlight {
+
+    // Also reuse a completed result for this long; 0 only shares calls that overlap
+    long ttlMs() default 0;
+}
@@ -0,0 +1,140 @@
+package com.ticketsystem.aspect;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Implements {@link SingleFlight}. Calls are keyed by method and arguments; the first
+ * caller runs the method and the others wait for its result.
+ *
+ * Ordered after method security, so every caller is authorized on its own, and before
+ * transactions, so a waiting caller does not hold a connection.
+ */
+@Aspect
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE - 100)
+public class SingleFlightAspect {
+
+    private static final int MAX_CACHED_RESULTS = 1000;
+
+    private final Map<Key, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final Map<String, Counters> counters = new ConcurrentHashMap<>();
+
+    private final Cache<Key, CachedResult> recentResults = Caffeine.newBuilder()
+            .maximumSize(MAX_CACHED_RESULTS)
+            .expireAfter(new Expiry<Key, CachedResult>() {
+                @Override
+                public long expireAfterCreate(Key key, CachedResult value, long currentTime) {
+                    return TimeUnit.MILLISECONDS.toNanos(value.ttlMs);
+                }
+
+                @Override
+                public long expireAfterUpdate(Key key, CachedResult value, long currentTime, long currentDuration) {
+                    return TimeUnit.MILLISECONDS.toNanos(value.ttlMs);
+                }
+
+                @Override
+                public long expireAfterRead(Key key, CachedResult value, long currentTime, long currentDuration) {
+                    return currentDuration;
+                }
+            })
+            .build();
+
+    @Around("@annotation(singleFlight)")
+    public Object coalesce(ProceedingJoinPoint joinPoint, SingleFlight singleFlight) throws Throwable {
+        String method = joinPoint.getSignature().toShortString();
+        Counters methodCounters = counters.computeIfAbsent(method, m -> new Counters());
+        methodCounters.calls.increment();
+        Key key = new Key(joinPoint.getSignature().toLongString(), Arrays.asList(joinPoint.getArgs()));
+
+        if (singleFlight.ttlMs() > 0) {
+            CachedResult cached = recentResults.getIfPresent(key);
+            if (cached != null) {
+                methodCounters.cacheHits.increment();
+                return cached.value;
+            }
+        }
+
+        CompletableFuture<Object> mine = new CompletableFuture<>();
+        CompletableFuture<Object> leader = inFlight.putIfAbsent(key, mine);
+        if (leader != null) {
+            methodCounters.coalesced.increment();
+            return await(leader);
+        }
+
+        try {
+            Object result = joinPoint.proceed();
+            methodCounters.executions.increment();
+            if (singleFlight.ttlMs() > 0) {
+                recentResults.put(key, new CachedResult(result, singleFlight.ttlMs()));
+            }
+            mine.complete(result);
+            return result;
+        } catch (Throwable t) {
+            mine.completeExceptionally(t);
+            throw t;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("inFlight", inFlight.size());
+        stats.put("cachedResults", recentResults.estimatedSize());
+        Map<String, Object> methods = new LinkedHashMap<>();
+        counters.forEach((method, c) -> {
+            Map<String, Object> info = new LinkedHashMap<>();
+            info.put("calls", c.calls.sum());
+            info.put("executions", c.executions.sum());
+            info.put("coalesced", c.coalesced.sum());
+            info.put("cacheHits", c.cacheHits.sum());
+            info.put("saved", c.coalesced.sum() + c.cacheHits.sum());
+            methods.put(method, info);
+        });
+        stats.put("methods", methods);
+        return stats;
+    }
+
+    // Helper methods
+    private Object await(CompletableFuture<Object> leader) throws Throwable {
+        try {
+            return leader.get();
+        } catch (ExecutionException e) {
+            throw e.getCause();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw e;
+        }
+    }
+
+    private record Key(String method, List<Object> args) {
+    }
+
+    private record CachedResult(Object value, long ttlMs) {
+    }
+
+    private static class Counters {
+        final LongAdder calls = new LongAdder();
+        final LongAdder executions = new LongAdder();
+        final LongAdder coalesced = new LongAdder();
+        final LongAdder cacheHits = new LongAdder();
+    }
+}
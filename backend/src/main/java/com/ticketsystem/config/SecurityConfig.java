@@ -1,8 +1,11 @@
 package com.ticketsystem.config;
 
+import com.ticketsystem.security.BoundedPasswordEncoder;
 import com.ticketsystem.security.JwtAuthenticationFilter;
 import com.ticketsystem.service.UserService;
+import jakarta.servlet.DispatcherType;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -15,8 +18,6 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.web.cors.CorsConfiguration;
@@ -37,9 +38,23 @@ public class SecurityConfig {
     @Autowired
     private JwtAuthenticationFilter jwtAuthenticationFilter;
 
+    @Value("${security.password-hashing.strength:10}")
+    private int passwordStrength;
+
+    @Value("${security.password-hashing.threads:0}")
+    private int passwordHashingThreads;
+
+    @Value("${security.password-hashing.queue-capacity:64}")
+    private int passwordHashingQueueCapacity;
+
+    @Value("${security.password-hashing.timeout-ms:5000}")
+    private long passwordHashingTimeoutMs;
+
+    // Hashing runs on its own pool so login bursts cannot starve request threads
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public BoundedPasswordEncoder passwordEncoder() {
+        int threads = passwordHashingThreads > 0 ? passwordHashingThreads : Runtime.getRuntime().availableProcessors();
+        return new BoundedPasswordEncoder(passwordStrength, threads, passwordHashingQueueCapacity, passwordHashingTimeoutMs);
     }
 
     @Bean
@@ -47,6 +62,8 @@ public class SecurityConfig {
         DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
         authProvider.setUserDetailsService(userService);
         authProvider.setPasswordEncoder(passwordEncoder());
+        // Rehashes passwords stored with a lower cost on successful login
+        authProvider.setUserDetailsPasswordService(userService);
         return authProvider;
     }
 
@@ -75,6 +92,9 @@ public class SecurityConfig {
             .cors(cors -> cors.configurationSource(corsConfigurationSource()))
             .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
             .authorizeHttpRequests(authz -> authz
+                // Async results were authorized on the initial dispatch
+                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+
                 // Public endpoints
                 .requestMatchers("/auth/**").permitAll()
                 .requestMatchers("/swagger-ui/**", "/api-docs/**", "/swagger-ui.html").permitAll()
@@ -95,6 +115,7 @@ public class SecurityConfig {
                 .requestMatchers("/tickets/**").authenticated()
                 .requestMatchers("/comments/**").authenticated()
                 .requestMatchers("/attachments/**").authenticated()
+                .requestMatchers("/uploads/**").authenticated()
                 .requestMatchers("/ratings/**").authenticated()
                 .requestMatchers("/users/profile").authenticated()
                 
@@ -0,0 +1,41 @@
+package com.ticketsystem.config;
+
+import com.ticketsystem.security.ConcurrencyLimitInterceptor;
+import com.ticketsystem.security.RateLimitInterceptor;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.orm.jpa.support.OpenEntityManagerInViewInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    @Autowired
+    private RateLimitInterceptor rateLimitInterceptor;
+
+    @Autowired
+    private ConcurrencyLimitInterceptor concurrencyLimitInterceptor;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        // Rate-limited requests are rejected before they take a concurrency slot
+        registry.addInterceptor(rateLimitInterceptor).addPathPatterns("/**");
+        registry.addInterceptor(concurrencyLimitInterceptor).addPathPatterns("/**");
+
+        // Replaces spring.jpa.open-in-view, which binds a connection for the whole request.
+        // Transfers would hold it while the client sends or reads the body, and sign-ins while
+        // they queue for the password hashing pool; their services map results inside their
+        // own transactions instead.
+        OpenEntityManagerInViewInterceptor openEntityManagerInView = new OpenEntityManagerInViewInterceptor();
+        openEntityManagerInView.setEntityManagerFactory(entityManagerFactory);
+        registry.addWebRequestInterceptor(openEntityManagerInView)
+            .addPathPatterns("/**")
+            .excludePathPatterns("/tickets/*/attachments", "/tickets/*/attachments.zip", "/attachments/**",
+                "/tickets/*/uploads", "/uploads/**", "/auth/**");
+    }
+}
@@ -5,6 +5,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
@@ -25,13 +26,33 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.ticketsystem.aspect.SingleFlightAspect;
 import com.ticketsystem.dto.AdminUserDto;
 import com.ticketsystem.dto.CreateUserRequest;
 import com.ticketsystem.dto.SystemStatsDto;
 import com.ticketsystem.dto.UpdateUserRequest;
 import com.ticketsystem.entity.User;
 import com.ticketsystem.entity.UserRole;
+import com.ticketsystem.event.OutboxRelay;
+import com.ticketsystem.event.TicketEventBroadcaster;
+import com.ticketsystem.security.AdaptiveConcurrencyLimiter;
+import com.ticketsystem.security.BoundedPasswordEncoder;
+import com.ticketsystem.security.JwtUtil;
+import com.ticketsystem.security.RateLimiter;
+import com.ticketsystem.security.TokenRevocationList;
+import com.ticketsystem.security.UserPrincipalCache;
 import com.ticketsystem.service.AdminService;
+import com.ticketsystem.service.AttachmentTextIndex;
+import com.ticketsystem.service.AuthService;
+import com.ticketsystem.service.BlobStore;
+import com.ticketsystem.service.Bulkheads;
+import com.ticketsystem.service.Bulkheads.Workload;
+import com.ticketsystem.service.OrphanFileCollector;
+import com.ticketsystem.service.PartitionMaintenanceService;
+import com.ticketsystem.service.StorageUsageService;
+import com.ticketsystem.service.TicketArchiveService;
+import com.ticketsystem.service.ThumbnailService;
+import com.ticketsystem.service.UploadSessionService;
 import com.ticketsystem.service.UserService;
 
 import io.swagger.v3.oas.annotations.Operation;
@@ -50,12 +71,68 @@ public class AdminController {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private TicketEventBroadcaster ticketEventBroadcaster;
+
+    @Autowired
+    private OutboxRelay outboxRelay;
+
+    @Autowired
+    private PartitionMaintenanceService partitionMaintenanceService;
+
+    @Autowired
+    private TicketArchiveService ticketArchiveService;
+
+    @Autowired
+    private UserPrincipalCache userPrincipalCache;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private TokenRevocationList tokenRevocationList;
+
+    @Autowired
+    private BoundedPasswordEncoder passwordEncoder;
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private RateLimiter rateLimiter;
+
+    @Autowired
+    private AdaptiveConcurrencyLimiter concurrencyLimiter;
+
+    @Autowired
+    private Bulkheads bulkheads;
+
+    @Autowired
+    private SingleFlightAspect singleFlightAspect;
+
+    @Autowired
+    private BlobStore blobStore;
+
+    @Autowired
+    private ThumbnailService thumbnailService;
+
+    @Autowired
+    private AttachmentTextIndex attachmentTextIndex;
+
+    @Autowired
+    private StorageUsageService storageUsageService;
+
+    @Autowired
+    private OrphanFileCollector orphanFileCollector;
+
+    @Autowired
+    private UploadSessionService uploadSessionService;
+
     // System Statistics
     @GetMapping("/stats")
     @Operation(summary = "Get system statistics", description = "Retrieve comprehensive system statistics and metrics")
-    public ResponseEntity<SystemStatsDto> getSystemStats() {
-        SystemStatsDto stats = adminService.getSystemStats();
-        return ResponseEntity.ok(stats);
+    public CompletableFuture<ResponseEntity<SystemStatsDto>> getSystemStats() {
+        return bulkheads.supply(Workload.ANALYTICS, () -> ResponseEntity.ok(adminService.getSystemStats()));
     }
 
     // User Management
@@ -71,7 +148,7 @@ public class AdminController {
 
     @GetMapping("/users")
     @Operation(summary = "Get all users", description = "Retrieve all users with filtering and pagination")
-    public ResponseEntity<Page<AdminUserDto>> getAllUsers(
+    public CompletableFuture<ResponseEntity<Page<AdminUserDto>>> getAllUsers(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size,
             @RequestParam(defaultValue = "createdAt") String sortBy,
@@ -83,15 +160,15 @@ public class AdminController {
         Sort sort = Sort.by(Sort.Direction.fromString(sortDir), sortBy);
         Pageable pageable = PageRequest.of(page, size, sort);
 
-        Page<User> users;
-        if (role != null || isActive != null || search != null) {
-            users = adminService.getUsersWithFilters(role, isActive, search, pageable);
-        } else {
-            users = adminService.getAllUsers(pageable);
-        }
-
-        Page<AdminUserDto> userDtos = users.map(AdminUserDto::fromEntity);
-        return ResponseEntity.ok(userDtos);
+        return bulkheads.supply(Workload.SEARCH, () -> {
+            Page<User> users;
+            if (role != null || isActive != null || search != null) {
+                users = adminService.getUsersWithFilters(role, isActive, search, pageable);
+            } else {
+                users = adminService.getAllUsers(pageable);
+            }
+            return ResponseEntity.ok(users.map(AdminUserDto::fromEntity));
+        });
     }
 
     @GetMapping("/users/{id}")
@@ -124,7 +201,7 @@ public class AdminController {
 
     @GetMapping("/users/search")
     @Operation(summary = "Search users", description = "Search users by name or email")
-    public ResponseEntity<Page<AdminUserDto>> searchUsers(
+    public CompletableFuture<ResponseEntity<Page<AdminUserDto>>> searchUsers(
             @RequestParam String query,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size,
@@ -134,9 +211,8 @@ public class AdminController {
         Sort sort = Sort.by(Sort.Direction.fromString(sortDir), sortBy);
         Pageable pageable = PageRequest.of(page, size, sort);
 
-        Page<User> users = adminService.searchUsers(query, pageable);
-        Page<AdminUserDto> userDtos = users.map(AdminUserDto::fromEntity);
-        return ResponseEntity.ok(userDtos);
+        return bulkheads.supply(Workload.SEARCH, () ->
+            ResponseEntity.ok(adminService.searchUsers(query, pageable).map(AdminUserDto::fromEntity)));
     }
 
     // Bulk Operations
@@ -175,42 +251,179 @@ public class AdminController {
     // System Health and Monitoring
     @GetMapping("/health")
     @Operation(summary = "System health check", description = "Check system health and status")
-    public ResponseEntity<Map<String, Object>> getSystemHealth() {
-        Map<String, Object> health = new HashMap<>();
-        health.put("status", "UP");
-        health.put("timestamp", LocalDateTime.now());
-        health.put("version", "1.0.0");
+    public CompletableFuture<ResponseEntity<Map<String, Object>>> getSystemHealth() {
+        return bulkheads.supply(Workload.ANALYTICS, () -> {
+            Map<String, Object> health = new HashMap<>();
+            health.put("status", "UP");
+            health.put("timestamp", LocalDateTime.now());
+            health.put("version", "1.0.0");
+
+            try {
+                SystemStatsDto stats = adminService.getSystemStats();
+                health.put("totalUsers", stats.getTotalUsers());
+                health.put("totalTickets", stats.getTotalTickets());
+                health.put("activeTickets", stats.getOpenTickets() + stats.getInProgressTickets());
+            } catch (Exception e) {
+                health.put("status", "DOWN");
+                health.put("error", e.getMessage());
+            }
+
+            return ResponseEntity.ok(health);
+        });
+    }
 
-        try {
-            SystemStatsDto stats = adminService.getSystemStats();
-            health.put("totalUsers", stats.getTotalUsers());
-            health.put("totalTickets", stats.getTotalTickets());
-            health.put("activeTickets", stats.getOpenTickets() + stats.getInProgressTickets());
-        } catch (Exception e) {
-            health.put("status", "DOWN");
-            health.put("error", e.getMessage());
-        }
+    @GetMapping("/stream")
+    @Operation(summary = "Live update stream status", description = "Get subscriber and delivery counters for the live update stream")
+    public ResponseEntity<Map<String, Object>> getStreamStats() {
+        return ResponseEntity.ok(ticketEventBroadcaster.getStats());
+    }
+
+    @GetMapping("/outbox")
+    @Operation(summary = "Outbox status", description = "Get pending, failed and relayed counts for the event outbox")
+    public ResponseEntity<Map<String, Object>> getOutboxStats() {
+        return ResponseEntity.ok(outboxRelay.getStats());
+    }
+
+    @GetMapping("/partitions")
+    @Operation(summary = "Partition status", description = "Get the attached monthly partitions of comments and ticket events")
+    public ResponseEntity<Map<String, Object>> getPartitionStats() {
+        return ResponseEntity.ok(partitionMaintenanceService.getStats());
+    }
+
+    @GetMapping("/archive")
+    @Operation(summary = "Archive status", description = "Get archived ticket counts and archival run details")
+    public ResponseEntity<Map<String, Object>> getArchiveStats() {
+        return ResponseEntity.ok(ticketArchiveService.getStats());
+    }
+
+    @PostMapping("/archive/run")
+    @Operation(summary = "Run archival", description = "Archive eligible closed tickets now instead of waiting for the schedule")
+    public ResponseEntity<Map<String, Object>> runArchival() {
+        Map<String, Object> result = new HashMap<>();
+        result.put("archivedTickets", ticketArchiveService.runArchival());
+        return ResponseEntity.ok(result);
+    }
+
+    @PostMapping("/archive/tickets/{id}/restore")
+    @Operation(summary = "Restore archived ticket", description = "Move an archived ticket and its data back to the active tables")
+    public ResponseEntity<Void> restoreArchivedTicket(@PathVariable UUID id) {
+        ticketArchiveService.restoreTicket(id);
+        return ResponseEntity.noContent().build();
+    }
+
+    @GetMapping("/principal-cache")
+    @Operation(summary = "Principal cache status", description = "Get size and hit rate of the authenticated user cache")
+    public ResponseEntity<Map<String, Object>> getPrincipalCacheStats() {
+        return ResponseEntity.ok(userPrincipalCache.getStats());
+    }
+
+    @GetMapping("/token-cache")
+    @Operation(summary = "Token cache status", description = "Get size and hit rate of the verified token cache")
+    public ResponseEntity<Map<String, Object>> getTokenCacheStats() {
+        return ResponseEntity.ok(jwtUtil.getCacheStats());
+    }
+
+    @GetMapping("/token-revocations")
+    @Operation(summary = "Token denylist status", description = "Get size and check counters of the stateless mode token denylist")
+    public ResponseEntity<Map<String, Object>> getTokenRevocationStats() {
+        return ResponseEntity.ok(tokenRevocationList.getStats());
+    }
+
+    @GetMapping("/password-hashing")
+    @Operation(summary = "Password hashing status", description = "Get hashing pool queue depth, latency and login timings")
+    public ResponseEntity<Map<String, Object>> getPasswordHashingStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("pool", passwordEncoder.getStats());
+        stats.put("login", authService.getLoginStats());
+        return ResponseEntity.ok(stats);
+    }
+
+    @GetMapping("/rate-limits")
+    @Operation(summary = "Rate limiter status", description = "Get configured limits, active keys and rejection counts")
+    public ResponseEntity<Map<String, Object>> getRateLimitStats() {
+        return ResponseEntity.ok(rateLimiter.getStats());
+    }
+
+    @GetMapping("/concurrency-limits")
+    @Operation(summary = "Concurrency limiter status", description = "Get the adaptive limit, latency and shed counts per endpoint group")
+    public ResponseEntity<Map<String, Object>> getConcurrencyLimitStats() {
+        return ResponseEntity.ok(concurrencyLimiter.getStats());
+    }
+
+    @GetMapping("/bulkheads")
+    @Operation(summary = "Bulkhead status", description = "Get thread, queue and rejection counts per workload pool")
+    public ResponseEntity<Map<String, Object>> getBulkheadStats() {
+        return ResponseEntity.ok(bulkheads.getStats());
+    }
+
+    @GetMapping("/single-flight")
+    @Operation(summary = "Request coalescing status", description = "Get calls, executions and calls saved per coalesced method")
+    public ResponseEntity<Map<String, Object>> getSingleFlightStats() {
+        return ResponseEntity.ok(singleFlightAspect.getStats());
+    }
+
+    @GetMapping("/blobs")
+    @Operation(summary = "Attachment blob store status", description = "Get stored blob counts, bytes and deduplication counters")
+    public ResponseEntity<Map<String, Object>> getBlobStats() {
+        return ResponseEntity.ok(blobStore.getStats());
+    }
+
+    @PostMapping("/blobs/deduplicate")
+    @Operation(summary = "Deduplicate legacy attachment files", description = "Move attachments stored before the blob store into it, a batch at a time")
+    public ResponseEntity<Map<String, Object>> deduplicateLegacyFiles(
+            @RequestParam(defaultValue = "1000") int maxFiles) {
+        return ResponseEntity.ok(blobStore.deduplicateLegacyFiles(maxFiles));
+    }
+
+    @GetMapping("/thumbnails")
+    @Operation(summary = "Thumbnail generation status", description = "Get thumbnail queue depth and generation counters")
+    public ResponseEntity<Map<String, Object>> getThumbnailStats() {
+        return ResponseEntity.ok(thumbnailService.getStats());
+    }
+
+    @GetMapping("/storage")
+    @Operation(summary = "Attachment storage usage", description = "Get total attachment storage, quotas and quota rejections")
+    public ResponseEntity<Map<String, Object>> getStorageStats() {
+        return ResponseEntity.ok(storageUsageService.getStats());
+    }
+
+    @GetMapping("/upload-gc")
+    @Operation(summary = "Orphaned upload file collection status", description = "Get collector progress, quarantined files and bytes reclaimed")
+    public ResponseEntity<Map<String, Object>> getUploadGcStats() {
+        return ResponseEntity.ok(orphanFileCollector.getStats());
+    }
+
+    @GetMapping("/upload-sessions")
+    @Operation(summary = "Chunked upload status", description = "Get active upload sessions and chunked upload counters")
+    public ResponseEntity<Map<String, Object>> getUploadSessionStats() {
+        return ResponseEntity.ok(uploadSessionService.getStats());
+    }
 
-        return ResponseEntity.ok(health);
+    @GetMapping("/attachment-text")
+    @Operation(summary = "Attachment text indexing status", description = "Get extraction queue depth and indexing counters")
+    public ResponseEntity<Map<String, Object>> getAttachmentTextStats() {
+        return ResponseEntity.ok(attachmentTextIndex.getStats());
     }
 
     @GetMapping("/activity")
     @Operation(summary = "Recent system activity", description = "Get recent system activity and events")
-    public ResponseEntity<Map<String, Object>> getRecentActivity() {
-        Map<String, Object> activity = new HashMap<>();
-
-        try {
-            SystemStatsDto stats = adminService.getSystemStats();
-            activity.put("newTicketsToday", stats.getNewTicketsToday());
-            activity.put("newUsersToday", stats.getNewUsersToday());
-            activity.put("lastTicketCreated", stats.getLastTicketCreated());
-            activity.put("lastUserRegistered", stats.getLastUserRegistered());
-            activity.put("overdueTickets", stats.getOverdueTickets());
-            activity.put("unassignedTickets", stats.getUnassignedTickets());
-        } catch (Exception e) {
-            activity.put("error", e.getMessage());
-        }
-
-        return ResponseEntity.ok(activity);
+    public CompletableFuture<ResponseEntity<Map<String, Object>>> getRecentActivity() {
+        return bulkheads.supply(Workload.ANALYTICS, () -> {
+            Map<String, Object> activity = new HashMap<>();
+
+            try {
+                SystemStatsDto stats = adminService.getSystemStats();
+                activity.put("newTicketsToday", stats.getNewTicketsToday());
+                activity.put("newUsersToday", stats.getNewUsersToday());
+                activity.put("lastTicketCreated", stats.getLastTicketCreated());
+                activity.put("lastUserRegistered", stats.getLastUserRegistered());
+                activity.put("overdueTickets", stats.getOverdueTickets());
+                activity.put("unassignedTickets", stats.getUnassignedTickets());
+            } catch (Exception e) {
+                activity.put("error", e.getMessage());
+            }
+
+            return ResponseEntity.ok(activity);
+        });
     }
 }
@@ -0,0 +1,416 @@
+package com.ticketsystem.controller;
+
+import com.ticketsystem.dto.AttachmentDto;
+import com.ticketsystem.dto.UploadSessionDto;
+import com.ticketsystem.entity.User;
+import com.ticketsystem.exception.ResourceNotFoundException;
+import com.ticketsystem.service.AttachmentService;
+import com.ticketsystem.service.AttachmentService.AttachmentContent;
+import com.ticketsystem.service.AttachmentService.ThumbnailContent;
+import com.ticketsystem.service.AttachmentStorage;
+import com.ticketsystem.service.UploadSessionService;
+import com.ticketsystem.service.UploadSessionService.UploadSession;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+@RestController
+@Tag(name = "Attachments", description = "Ticket attachment endpoints")
+public class AttachmentController {
+
+    // Set by Tomcat's NIO connector when it can send a file region itself
+    private static final String SENDFILE_SUPPORTED = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private static final String CACHE_CONTROL = "private, max-age=86400";
+
+    @Autowired
+    private AttachmentService attachmentService;
+
+    @Autowired
+    private UploadSessionService uploadSessionService;
+
+    // The body is the raw file, streamed to disk; multipart is not used so nothing is buffered.
+    // Declaring the content's SHA-256 lets an upload of already stored content skip the disk.
+    @PostMapping("/tickets/{ticketId}/attachments")
+    @Operation(summary = "Upload attachment", description = "Stream the request body to a new attachment on the ticket")
+    public ResponseEntity<AttachmentDto> uploadAttachment(
+            @PathVariable UUID ticketId,
+            @RequestParam String fileName,
+            @RequestHeader(value = "X-Content-SHA256", required = false) String contentSha256,
+            @AuthenticationPrincipal User currentUser,
+            HttpServletRequest request) throws IOException {
+
+        AttachmentDto attachment = attachmentService.upload(ticketId, currentUser, fileName,
+            request.getContentType(), contentSha256, request.getContentLengthLong(), request.getInputStream(),
+            AttachmentDto::fromEntity);
+        return ResponseEntity.status(HttpStatus.CREATED).body(attachment);
+    }
+
+    // Large files: start a session, PUT chunks in order, then complete it
+    @PostMapping("/tickets/{ticketId}/uploads")
+    @Operation(summary = "Start chunked upload", description = "Create a resumable upload session for a large attachment")
+    public ResponseEntity<UploadSessionDto> createUploadSession(
+            @PathVariable UUID ticketId,
+            @RequestParam String fileName,
+            @RequestParam long size,
+            @RequestParam(required = false) String contentType,
+            @RequestHeader(value = "X-Content-SHA256", required = false) String contentSha256,
+            @AuthenticationPrincipal User currentUser) throws IOException {
+
+        UploadSession session = uploadSessionService.createSession(ticketId, currentUser, fileName, contentType,
+            size, contentSha256);
+        return ResponseEntity.status(HttpStatus.CREATED).body(UploadSessionDto.fromSession(session));
+    }
+
+    @GetMapping("/uploads/{id}")
+    @Operation(summary = "Get chunked upload", description = "Get the offset the next chunk must start at")
+    public ResponseEntity<UploadSessionDto> getUploadSession(
+            @PathVariable UUID id,
+            @AuthenticationPrincipal User currentUser) {
+
+        return ResponseEntity.ok(UploadSessionDto.fromSession(uploadSessionService.getSession(id, currentUser)));
+    }
+
+    @PutMapping("/uploads/{id}")
+    @Operation(summary = "Upload chunk", description = "Write the request body at the given offset, which must be the current one")
+    public ResponseEntity<UploadSessionDto> uploadChunk(
+            @PathVariable UUID id,
+            @RequestParam long offset,
+            @AuthenticationPrincipal User currentUser,
+            HttpServletRequest request) throws IOException {
+
+        UploadSession session = uploadSessionService.putChunk(id, currentUser, offset,
+            request.getContentLengthLong(), request.getInputStream());
+        return ResponseEntity.ok(UploadSessionDto.fromSession(session));
+    }
+
+    @PostMapping("/uploads/{id}/complete")
+    @Operation(summary = "Complete chunked upload", description = "Verify a fully received upload and attach it to its ticket")
+    public ResponseEntity<AttachmentDto> completeUploadSession(
+            @PathVariable UUID id,
+            @AuthenticationPrincipal User currentUser) throws IOException {
+
+        AttachmentDto attachment = uploadSessionService.complete(id, currentUser, AttachmentDto::fromEntity);
+        return ResponseEntity.status(HttpStatus.CREATED).body(attachment);
+    }
+
+    @DeleteMapping("/uploads/{id}")
+    @Operation(summary = "Cancel chunked upload", description = "Discard an upload session and its received bytes")
+    public ResponseEntity<Void> cancelUploadSession(
+            @PathVariable UUID id,
+            @AuthenticationPrincipal User currentUser) {
+
+        uploadSessionService.cancel(id, currentUser);
+        return ResponseEntity.noContent().build();
+    }
+
+    @GetMapping("/tickets/{ticketId}/attachments")
+    @Operation(summary = "Get attachments for ticket", description = "List the attachments on a ticket, newest first")
+    public ResponseEntity<List<AttachmentDto>> getAttachmentsByTicket(
+            @PathVariable UUID ticketId,
+            @AuthenticationPrincipal User currentUser) {
+
+        return ResponseEntity.ok(attachmentService.getAttachmentsForTicket(ticketId, currentUser, AttachmentDto::fromEntity));
+    }
+
+    // Built while it is sent, so there is no Content-Length and nothing is written to disk
+    @GetMapping("/tickets/{ticketId}/attachments.zip")
+    @Operation(summary = "Download all attachments", description = "Stream every attachment on a ticket as one ZIP file")
+    public void downloadAttachmentsZip(
+            @PathVariable UUID ticketId,
+            @AuthenticationPrincipal User currentUser,
+            HttpServletResponse response) throws IOException {
+
+        List<AttachmentContent> contents = attachmentService.getContentsForTicket(ticketId, currentUser);
+        response.setContentType("application/zip");
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "private, no-store");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+            .filename("ticket-" + ticketId + "-attachments.zip").build().toString());
+        attachmentService.writeZip(contents, response.getOutputStream());
+    }
+
+    @GetMapping("/attachments/{id}")
+    @Operation(summary = "Get attachment by ID", description = "Retrieve attachment metadata")
+    public ResponseEntity<AttachmentDto> getAttachment(
+            @PathVariable UUID id,
+            @AuthenticationPrincipal User currentUser) {
+
+        return ResponseEntity.ok(attachmentService.getAttachmentWithAccess(id, currentUser, AttachmentDto::fromEntity));
+    }
+
+    // Bodies are sent with sendfile where Tomcat supports it, otherwise with FileChannel.transferTo
+    @GetMapping("/attachments/{id}/content")
+    @Operation(summary = "Download attachment", description = "Download attachment content, with Range and conditional request support")
+    public void downloadAttachment(
+            @PathVariable UUID id,
+            @AuthenticationPrincipal User currentUser,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+
+        AttachmentContent content = attachmentService.getContent(id, currentUser);
+        if (content.contentEncoding() != null) {
+            try {
+                sendEncoded(request, response, content);
+            } catch (NoSuchFileException e) {
+                throw new IllegalStateException("Attachment " + id + " has no stored file");
+            }
+            return;
+        }
+        String etag = content.contentHash() != null ? "\"" + content.contentHash() + "\"" : null;
+
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL);
+        if (etag != null) {
+            response.setHeader(HttpHeaders.ETAG, etag);
+            if (matchesIfNoneMatch(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+                response.setStatus(HttpStatus.NOT_MODIFIED.value());
+                return;
+            }
+        }
+
+        List<HttpRange> ranges;
+        try {
+            ranges = requestedRanges(request, etag, content.size());
+        } catch (IllegalArgumentException e) {
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + content.size());
+            response.setStatus(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+            return;
+        }
+
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+            .filename(content.originalFileName(), StandardCharsets.UTF_8).build().toString());
+
+        try (FileChannel file = FileChannel.open(content.path(), StandardOpenOption.READ)) {
+            long size = content.size();
+            if (ranges.isEmpty()) {
+                response.setContentType(content.mimeType());
+                response.setContentLengthLong(size);
+                sendRegion(request, response, content, file, 0, size);
+            } else if (ranges.size() == 1) {
+                long start = ranges.get(0).getRangeStart(size);
+                long end = ranges.get(0).getRangeEnd(size);
+                response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+                response.setContentType(content.mimeType());
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + size);
+                response.setContentLengthLong(end - start + 1);
+                sendRegion(request, response, content, file, start, end - start + 1);
+            } else {
+                sendMultipartRanges(response, content, file, ranges);
+            }
+        } catch (NoSuchFileException e) {
+            throw new IllegalStateException("Attachment " + id + " has no stored file");
+        }
+    }
+
+    // Keyed by content hash, so the ETag only changes if the thumbnail size setting does
+    @GetMapping("/attachments/{id}/thumbnail")
+    @Operation(summary = "Get attachment thumbnail", description = "Get a small JPEG preview of an image attachment")
+    public ResponseEntity<Resource> getThumbnail(
+            @PathVariable UUID id,
+            @AuthenticationPrincipal User currentUser,
+            WebRequest webRequest) {
+
+        ThumbnailContent thumbnail = attachmentService.getThumbnail(id, currentUser)
+            .orElseThrow(() -> new ResourceNotFoundException("No thumbnail available for attachment: " + id));
+        String etag = "\"" + thumbnail.contentHash() + "-thumb\"";
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok()
+            .contentType(MediaType.IMAGE_JPEG)
+            .header(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL)
+            .body(new FileSystemResource(thumbnail.path()));
+    }
+
+    @DeleteMapping("/attachments/{id}")
+    @Operation(summary = "Delete attachment", description = "Delete an attachment and its file")
+    public ResponseEntity<Void> deleteAttachment(
+            @PathVariable UUID id,
+            @AuthenticationPrincipal User currentUser) {
+
+        attachmentService.deleteAttachment(id, currentUser);
+        return ResponseEntity.noContent().build();
+    }
+
+    // Helper methods
+    // Throws IllegalArgumentException for malformed or unsatisfiable ranges
+    private List<HttpRange> requestedRanges(HttpServletRequest request, String etag, long size) {
+        String range = request.getHeader(HttpHeaders.RANGE);
+        if (range == null) {
+            return List.of();
+        }
+        // A stale If-Range means the client's partial copy is of other content
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange != null && !ifRange.equals(etag)) {
+            return List.of();
+        }
+        List<HttpRange> ranges = HttpRange.parseRanges(range);
+        // Overlapping ranges could make one request send the file many times over
+        List<long[]> bounds = new ArrayList<>();
+        long total = 0;
+        for (HttpRange httpRange : ranges) {
+            long start = httpRange.getRangeStart(size);
+            long end = httpRange.getRangeEnd(size);
+            bounds.add(new long[] {start, end});
+            total += end - start + 1;
+        }
+        if (total > size) {
+            throw new IllegalArgumentException("Requested ranges exceed the content length");
+        }
+        bounds.sort(Comparator.comparingLong(bound -> bound[0]));
+        for (int i = 1; i < bounds.size(); i++) {
+            if (bounds.get(i)[0] <= bounds.get(i - 1)[1]) {
+                throw new IllegalArgumentException("Requested ranges overlap");
+            }
+        }
+        return ranges;
+    }
+
+    private boolean matchesIfNoneMatch(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*") || tag.equals(etag) || tag.equals("W/" + etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Encoded files are sent whole: as stored when the client accepts gzip, otherwise decoded while streaming
+    private void sendEncoded(HttpServletRequest request, HttpServletResponse response,
+                             AttachmentContent content) throws IOException {
+        boolean passThrough = acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+        String etag = "\"" + content.contentHash() + (passThrough ? "-gzip" : "") + "\"";
+
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "none");
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL);
+        response.setHeader(HttpHeaders.ETAG, etag);
+        if (matchesIfNoneMatch(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+            response.setStatus(HttpStatus.NOT_MODIFIED.value());
+            return;
+        }
+
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+            .filename(content.originalFileName(), StandardCharsets.UTF_8).build().toString());
+        response.setContentType(content.mimeType());
+        if (passThrough) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, AttachmentStorage.GZIP);
+            try (FileChannel file = FileChannel.open(content.path(), StandardOpenOption.READ)) {
+                long storedSize = file.size();
+                response.setContentLengthLong(storedSize);
+                sendRegion(request, response, content, file, 0, storedSize);
+            }
+        } else {
+            response.setContentLengthLong(content.size());
+            try (InputStream in = attachmentService.openDecoded(content)) {
+                in.transferTo(response.getOutputStream());
+            }
+        }
+    }
+
+    private boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String candidate : acceptEncoding.split(",")) {
+            String[] parts = candidate.split(";");
+            String coding = parts[0].trim();
+            if (!coding.equalsIgnoreCase("gzip") && !coding.equalsIgnoreCase("x-gzip")) {
+                continue;
+            }
+            // gzip;q=0 means the client refuses it
+            for (int i = 1; i < parts.length; i++) {
+                String param = parts[i].trim();
+                if (param.startsWith("q=")) {
+                    try {
+                        return Double.parseDouble(param.substring(2)) > 0;
+                    } catch (NumberFormatException e) {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+
+    private void sendRegion(HttpServletRequest request, HttpServletResponse response, AttachmentContent content,
+                            FileChannel file, long start, long length) throws IOException {
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED))) {
+            request.setAttribute(SENDFILE_FILENAME, content.path().toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, start + length);
+            return;
+        }
+        transfer(file, start, length, Channels.newChannel(response.getOutputStream()));
+    }
+
+    private void sendMultipartRanges(HttpServletResponse response, AttachmentContent content,
+                                     FileChannel file, List<HttpRange> ranges) throws IOException {
+        long size = content.size();
+        String boundary = MimeTypeUtils.generateMultipartBoundaryString();
+        response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+        response.setContentType("multipart/byteranges; boundary=" + boundary);
+
+        OutputStream out = response.getOutputStream();
+        WritableByteChannel channel = Channels.newChannel(out);
+        for (HttpRange range : ranges) {
+            long start = range.getRangeStart(size);
+            long end = range.getRangeEnd(size);
+            String partHeader = "\r\n--" + boundary + "\r\n"
+                + HttpHeaders.CONTENT_TYPE + ": " + content.mimeType() + "\r\n"
+                + HttpHeaders.CONTENT_RANGE + ": bytes " + start + "-" + end + "/" + size + "\r\n\r\n";
+            out.write(partHeader.getBytes(StandardCharsets.US_ASCII));
+            transfer(file, start, end - start + 1, channel);
+        }
+        out.write(("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private void transfer(FileChannel file, long start, long length, WritableByteChannel target) throws IOException {
+        long position = start;
+        long remaining = length;
+        while (remaining > 0) {
+            long sent = file.transferTo(position, remaining, target);
+            if (sent <= 0) {
+                break;
+            }
+            position += sent;
+            remaining -= sent;
+        }
+    }
+}
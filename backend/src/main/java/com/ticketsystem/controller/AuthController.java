@@ -3,9 +3,11 @@ package com.ticketsystem.controller;
 import com.ticketsystem.dto.AuthResponse;
 import com.ticketsystem.dto.LoginRequest;
 import com.ticketsystem.dto.RegisterRequest;
+import com.ticketsystem.security.RateLimiter;
 import com.ticketsystem.service.AuthService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
@@ -19,16 +21,24 @@ public class AuthController {
     @Autowired
     private AuthService authService;
 
+    @Autowired
+    private RateLimiter rateLimiter;
+
     @PostMapping("/login")
     @Operation(summary = "User login", description = "Authenticate user and return JWT token")
-    public ResponseEntity<AuthResponse> login(@Valid @RequestBody LoginRequest loginRequest) {
+    public ResponseEntity<AuthResponse> login(@Valid @RequestBody LoginRequest loginRequest,
+                                              HttpServletRequest request) {
+        // Checked before the password is hashed, so a stuffing burst costs no BCrypt time
+        rateLimiter.acquireForCredentials(request.getRemoteAddr(), loginRequest.getEmail());
         AuthResponse response = authService.login(loginRequest);
         return ResponseEntity.ok(response);
     }
 
     @PostMapping("/register")
     @Operation(summary = "User registration", description = "Register a new user account")
-    public ResponseEntity<AuthResponse> register(@Valid @RequestBody RegisterRequest registerRequest) {
+    public ResponseEntity<AuthResponse> register(@Valid @RequestBody RegisterRequest registerRequest,
+                                                 HttpServletRequest request) {
+        rateLimiter.acquireForCredentials(request.getRemoteAddr(), registerRequest.getEmail());
         AuthResponse response = authService.register(registerRequest);
         return ResponseEntity.ok(response);
     }
@@ -0,0 +1,45 @@
+package com.ticketsystem.controller;
+
+import com.ticketsystem.entity.User;
+import com.ticketsystem.event.TicketEventBroadcaster;
+import com.ticketsystem.service.TicketService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/stream")
+@Tag(name = "Live Updates", description = "Server-Sent Event streams for ticket and comment changes")
+public class StreamController {
+
+    @Autowired
+    private TicketEventBroadcaster ticketEventBroadcaster;
+
+    @Autowired
+    private TicketService ticketService;
+
+    @GetMapping(value = "/tickets", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream ticket changes", description = "Subscribe to changes on all tickets visible to the current user")
+    public SseEmitter streamTickets(@AuthenticationPrincipal User currentUser) {
+        return ticketEventBroadcaster.subscribe(currentUser, null);
+    }
+
+    @GetMapping(value = "/tickets/{id}", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream changes for a ticket", description = "Subscribe to changes on a single ticket and its comments")
+    public SseEmitter streamTicket(
+            @PathVariable UUID id,
+            @AuthenticationPrincipal User currentUser) {
+
+        ticketService.getTicketByIdWithAccess(id, currentUser);
+        return ticketEventBroadcaster.subscribe(currentUser, id);
+    }
+}
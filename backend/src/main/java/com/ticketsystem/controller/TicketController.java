@@ -1,7 +1,12 @@
 package com.ticketsystem.controller;
 
+import com.ticketsystem.aspect.SingleFlight;
 import com.ticketsystem.dto.*;
 import com.ticketsystem.entity.*;
+import com.ticketsystem.service.Bulkheads;
+import com.ticketsystem.service.Bulkheads.Workload;
+import com.ticketsystem.service.ChangeFeedService;
+import com.ticketsystem.service.TicketEventService;
 import com.ticketsystem.service.TicketService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -18,7 +23,9 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/tickets")
@@ -28,6 +35,15 @@ public class TicketController {
     @Autowired
     private TicketService ticketService;
 
+    @Autowired
+    private ChangeFeedService changeFeedService;
+
+    @Autowired
+    private TicketEventService ticketEventService;
+
+    @Autowired
+    private Bulkheads bulkheads;
+
     @PostMapping
     @Operation(summary = "Create a new ticket", description = "Create a new support ticket")
     public ResponseEntity<TicketDto> createTicket(
@@ -48,9 +64,19 @@ public class TicketController {
         return ResponseEntity.ok(TicketDto.fromEntityWithDetails(ticket));
     }
 
+    @GetMapping("/{id}/events")
+    @Operation(summary = "Get ticket timeline", description = "Get the audit trail of changes made to a ticket")
+    public ResponseEntity<List<TicketEventDto>> getTicketEvents(
+            @PathVariable UUID id,
+            @AuthenticationPrincipal User currentUser) {
+        
+        List<TicketEventDto> events = ticketEventService.getTimeline(id, currentUser);
+        return ResponseEntity.ok(events);
+    }
+
     @GetMapping
     @Operation(summary = "Get tickets", description = "Get tickets based on user role and permissions")
-    public ResponseEntity<Page<TicketDto>> getTickets(
+    public CompletableFuture<ResponseEntity<Page<TicketDto>>> getTickets(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size,
             @RequestParam(defaultValue = "createdAt") String sortBy,
@@ -65,18 +91,21 @@ public class TicketController {
         Sort sort = Sort.by(Sort.Direction.fromString(sortDir), sortBy);
         Pageable pageable = PageRequest.of(page, size, sort);
         
-        Page<Ticket> tickets;
-        
+        // Filtered searches and large pages run on the search bulkhead
         if (status != null || priority != null || assignedToId != null || createdById != null || search != null) {
             User assignedTo = assignedToId != null ? new User() {{ setId(assignedToId); }} : null;
             User createdBy = createdById != null ? new User() {{ setId(createdById); }} : null;
-            tickets = ticketService.getTicketsWithFilters(status, priority, assignedTo, createdBy, search, pageable);
-        } else {
-            tickets = ticketService.getTicketsForUser(currentUser, pageable);
+            return bulkheads.supply(Workload.SEARCH, () -> ResponseEntity.ok(
+                ticketService.getTicketsWithFilters(status, priority, assignedTo, createdBy, search, pageable)
+                    .map(TicketDto::fromEntity)));
         }
-        
-        Page<TicketDto> ticketDtos = tickets.map(TicketDto::fromEntity);
-        return ResponseEntity.ok(ticketDtos);
+        if (bulkheads.isLargePage(size)) {
+            return bulkheads.supply(Workload.SEARCH, () -> ResponseEntity.ok(
+                ticketService.getTicketsForUser(currentUser, pageable).map(TicketDto::fromEntity)));
+        }
+
+        Page<Ticket> tickets = ticketService.getTicketsForUser(currentUser, pageable);
+        return CompletableFuture.completedFuture(ResponseEntity.ok(tickets.map(TicketDto::fromEntity)));
     }
 
     @PutMapping("/{id}")
@@ -154,9 +183,23 @@ public class TicketController {
         return ResponseEntity.ok(ticketDtos);
     }
 
+    @GetMapping("/archived")
+    @Operation(summary = "Get archived tickets", description = "Get closed tickets that have been moved to the archive")
+    public ResponseEntity<Page<TicketDto>> getArchivedTickets(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            @AuthenticationPrincipal User currentUser) {
+        
+        Pageable pageable = PageRequest.of(page, size);
+        Page<Ticket> tickets = ticketService.getArchivedTicketsForUser(currentUser, pageable);
+        Page<TicketDto> ticketDtos = tickets.map(TicketDto::fromEntity);
+        return ResponseEntity.ok(ticketDtos);
+    }
+
     @GetMapping("/unassigned")
     @Operation(summary = "Get unassigned tickets", description = "Get tickets that are not assigned to anyone")
     @PreAuthorize("hasRole('SUPPORT_AGENT') or hasRole('ADMIN')")
+    @SingleFlight(ttlMs = 1000) // coalesced here, on DTOs, since tickets have lazy associations
     public ResponseEntity<Page<TicketDto>> getUnassignedTickets(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size,
@@ -171,8 +214,19 @@ public class TicketController {
         return ResponseEntity.ok(ticketDtos);
     }
 
+    @GetMapping("/changes")
+    @Operation(summary = "Get ticket changes", description = "Get tickets, comments and deletions changed since a cursor")
+    public ResponseEntity<ChangeFeedDto> getChanges(
+            @RequestParam(required = false) String since,
+            @RequestParam(defaultValue = "100") int limit,
+            @AuthenticationPrincipal User currentUser) {
+
+        ChangeFeedDto changes = changeFeedService.getChangesSince(since, limit, currentUser);
+        return ResponseEntity.ok(changes);
+    }
+
     @GetMapping("/search")
-    @Operation(summary = "Search tickets", description = "Search tickets by subject and description")
+    @Operation(summary = "Search tickets", description = "Search tickets by subject, description and the text of their attachments")
     public ResponseEntity<Page<TicketDto>> searchTickets(
             @RequestParam String query,
             @RequestParam(defaultValue = "0") int page,
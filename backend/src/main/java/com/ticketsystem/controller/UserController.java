@@ -1,5 +1,6 @@
 package com.ticketsystem.controller;
 
+import com.ticketsystem.aspect.SingleFlight;
 import com.ticketsystem.dto.UpdateUserRequest;
 import com.ticketsystem.dto.UserDto;
 import com.ticketsystem.entity.User;
@@ -33,7 +34,9 @@ public class UserController {
     @GetMapping("/profile")
     @Operation(summary = "Get current user profile", description = "Get the profile of the currently authenticated user")
     public ResponseEntity<UserDto> getCurrentUserProfile(@AuthenticationPrincipal User currentUser) {
-        return ResponseEntity.ok(UserDto.fromEntity(currentUser));
+        // The principal may have been built from token claims; read the full profile
+        User user = userService.getUserById(currentUser.getId());
+        return ResponseEntity.ok(UserDto.fromEntity(user));
     }
 
     @PutMapping("/profile")
@@ -65,6 +68,7 @@ public class UserController {
     @GetMapping("/support-agents")
     @Operation(summary = "Get support agents", description = "Get list of active support agents")
     @PreAuthorize("hasRole('SUPPORT_AGENT') or hasRole('ADMIN')")
+    @SingleFlight(ttlMs = 2000) // coalesced here, on DTOs, so no managed users are shared
     public ResponseEntity<List<UserDto>> getSupportAgents() {
         List<User> agents = userService.getSupportAgents();
         List<UserDto> agentDtos = agents.stream()
@@ -0,0 +1,112 @@
+package com.ticketsystem.dto;
+
+import com.ticketsystem.entity.ChangeTombstone;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+public class ChangeFeedDto {
+
+    private List<TicketDto> tickets = new ArrayList<>();
+    private List<CommentDto> comments = new ArrayList<>();
+    private List<DeletionDto> deletions = new ArrayList<>();
+    private String cursor;
+    private boolean hasMore;
+
+    // Constructors
+    public ChangeFeedDto() {}
+
+    // Getters and Setters
+    public List<TicketDto> getTickets() {
+        return tickets;
+    }
+
+    public void setTickets(List<TicketDto> tickets) {
+        this.tickets = tickets;
+    }
+
+    public List<CommentDto> getComments() {
+        return comments;
+    }
+
+    public void setComments(List<CommentDto> comments) {
+        this.comments = comments;
+    }
+
+    public List<DeletionDto> getDeletions() {
+        return deletions;
+    }
+
+    public void setDeletions(List<DeletionDto> deletions) {
+        this.deletions = deletions;
+    }
+
+    public String getCursor() {
+        return cursor;
+    }
+
+    public void setCursor(String cursor) {
+        this.cursor = cursor;
+    }
+
+    public boolean isHasMore() {
+        return hasMore;
+    }
+
+    public void setHasMore(boolean hasMore) {
+        this.hasMore = hasMore;
+    }
+
+    // Deleted ticket or comment; deleting a ticket also deletes its comments
+    public static class DeletionDto {
+        private String type;
+        private UUID id;
+        private UUID ticketId;
+        private LocalDateTime deletedAt;
+
+        public DeletionDto() {}
+
+        public static DeletionDto fromEntity(ChangeTombstone tombstone) {
+            DeletionDto dto = new DeletionDto();
+            dto.setType(tombstone.getEntityType());
+            dto.setId(tombstone.getEntityId());
+            dto.setTicketId(tombstone.getTicketId());
+            dto.setDeletedAt(tombstone.getDeletedAt());
+            return dto;
+        }
+
+        public String getType() {
+            return type;
+        }
+
+        public void setType(String type) {
+            this.type = type;
+        }
+
+        public UUID getId() {
+            return id;
+        }
+
+        public void setId(UUID id) {
+            this.id = id;
+        }
+
+        public UUID getTicketId() {
+            return ticketId;
+        }
+
+        public void setTicketId(UUID ticketId) {
+            this.ticketId = ticketId;
+        }
+
+        public LocalDateTime getDeletedAt() {
+            return deletedAt;
+        }
+
+        public void setDeletedAt(LocalDateTime deletedAt) {
+            this.deletedAt = deletedAt;
+        }
+    }
+}
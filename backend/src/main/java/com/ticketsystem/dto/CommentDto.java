@@ -14,7 +14,6 @@ public class CommentDto {
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
     private boolean isEdited;
-    private boolean isSystemComment;
 
     // Constructors
     public CommentDto() {}
@@ -28,7 +27,6 @@ public class CommentDto {
         this.createdAt = createdAt;
         this.updatedAt = updatedAt;
         this.isEdited = updatedAt != null && !updatedAt.equals(createdAt);
-        this.isSystemComment = content != null && content.startsWith("[SYSTEM]");
     }
 
     // Static factory method
@@ -58,7 +56,6 @@ public class CommentDto {
 
     public void setContent(String content) {
         this.content = content;
-        this.isSystemComment = content != null && content.startsWith("[SYSTEM]");
     }
 
     public UUID getTicketId() {
@@ -101,12 +98,4 @@ public class CommentDto {
     public void setEdited(boolean edited) {
         isEdited = edited;
     }
-
-    public boolean isSystemComment() {
-        return isSystemComment;
-    }
-
-    public void setSystemComment(boolean systemComment) {
-        isSystemComment = systemComment;
-    }
 }
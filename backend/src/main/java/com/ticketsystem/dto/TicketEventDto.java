@@ -0,0 +1,113 @@
+package com.ticketsystem.dto;
+
+import com.ticketsystem.entity.TicketEvent;
+import com.ticketsystem.entity.TicketEventType;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public class TicketEventDto {
+
+    private Long id;
+    private UUID ticketId;
+    private TicketEventType type;
+    private UserDto actor;
+    private String oldValue;
+    private String newValue;
+    private String message;
+    private LocalDateTime createdAt;
+
+    // Constructors
+    public TicketEventDto() {}
+
+    public TicketEventDto(Long id, UUID ticketId, TicketEventType type, UserDto actor,
+                          String oldValue, String newValue, String message, LocalDateTime createdAt) {
+        this.id = id;
+        this.ticketId = ticketId;
+        this.type = type;
+        this.actor = actor;
+        this.oldValue = oldValue;
+        this.newValue = newValue;
+        this.message = message;
+        this.createdAt = createdAt;
+    }
+
+    // Static factory method
+    public static TicketEventDto fromEntity(TicketEvent event, UserDto actor, String message) {
+        return new TicketEventDto(
+            event.getId(),
+            event.getTicketId(),
+            event.getEventType(),
+            actor,
+            event.getOldValue(),
+            event.getNewValue(),
+            message,
+            event.getCreatedAt()
+        );
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public UUID getTicketId() {
+        return ticketId;
+    }
+
+    public void setTicketId(UUID ticketId) {
+        this.ticketId = ticketId;
+    }
+
+    public TicketEventType getType() {
+        return type;
+    }
+
+    public void setType(TicketEventType type) {
+        this.type = type;
+    }
+
+    public UserDto getActor() {
+        return actor;
+    }
+
+    public void setActor(UserDto actor) {
+        this.actor = actor;
+    }
+
+    public String getOldValue() {
+        return oldValue;
+    }
+
+    public void setOldValue(String oldValue) {
+        this.oldValue = oldValue;
+    }
+
+    public String getNewValue() {
+        return newValue;
+    }
+
+    public void setNewValue(String newValue) {
+        this.newValue = newValue;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
@@ -0,0 +1,101 @@
+package com.ticketsystem.dto;
+
+import com.ticketsystem.service.UploadSessionService.UploadSession;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public class UploadSessionDto {
+
+    private UUID id;
+    private UUID ticketId;
+    private String fileName;
+    private String mimeType;
+    private long totalSize;
+    private long offset;
+    private LocalDateTime expiresAt;
+
+    // Constructors
+    public UploadSessionDto() {}
+
+    public UploadSessionDto(UUID id, UUID ticketId, String fileName, String mimeType,
+                            long totalSize, long offset, LocalDateTime expiresAt) {
+        this.id = id;
+        this.ticketId = ticketId;
+        this.fileName = fileName;
+        this.mimeType = mimeType;
+        this.totalSize = totalSize;
+        this.offset = offset;
+        this.expiresAt = expiresAt;
+    }
+
+    // Static factory method
+    public static UploadSessionDto fromSession(UploadSession session) {
+        return new UploadSessionDto(
+            session.id(),
+            session.ticketId(),
+            session.fileName(),
+            session.mimeType(),
+            session.totalSize(),
+            session.offset(),
+            session.expiresAt()
+        );
+    }
+
+    // Getters and Setters
+    public UUID getId() {
+        return id;
+    }
+
+    public void setId(UUID id) {
+        this.id = id;
+    }
+
+    public UUID getTicketId() {
+        return ticketId;
+    }
+
+    public void setTicketId(UUID ticketId) {
+        this.ticketId = ticketId;
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    public void setFileName(String fileName) {
+        this.fileName = fileName;
+    }
+
+    public String getMimeType() {
+        return mimeType;
+    }
+
+    public void setMimeType(String mimeType) {
+        this.mimeType = mimeType;
+    }
+
+    public long getTotalSize() {
+        return totalSize;
+    }
+
+    public void setTotalSize(long totalSize) {
+        this.totalSize = totalSize;
+    }
+
+    public long getOffset() {
+        return offset;
+    }
+
+    public void setOffset(long offset) {
+        this.offset = offset;
+    }
+
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(LocalDateTime expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+}
@@ -1,6 +1,8 @@
 package com.ticketsystem.entity;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
@@ -31,6 +33,15 @@ public class Attachment {
     @Column(name = "file_path", nullable = false, length = 500)
     private String filePath;
 
+    // SHA-256 of the original bytes, hex encoded; null for files uploaded before hashing
+    @Column(name = "content_hash", length = 64)
+    @JdbcTypeCode(SqlTypes.CHAR)
+    private String contentHash;
+
+    // How the file at filePath is encoded, e.g. "gzip"; null when stored as uploaded
+    @Column(name = "content_encoding", length = 10)
+    private String contentEncoding;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "ticket_id", nullable = false)
     private Ticket ticket;
@@ -148,6 +159,22 @@ public class Attachment {
         this.filePath = filePath;
     }
 
+    public String getContentHash() {
+        return contentHash;
+    }
+
+    public void setContentHash(String contentHash) {
+        this.contentHash = contentHash;
+    }
+
+    public String getContentEncoding() {
+        return contentEncoding;
+    }
+
+    public void setContentEncoding(String contentEncoding) {
+        this.contentEncoding = contentEncoding;
+    }
+
     public Ticket getTicket() {
         return ticket;
     }
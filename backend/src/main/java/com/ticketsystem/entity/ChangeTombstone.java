@@ -0,0 +1,116 @@
+package com.ticketsystem.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Entity
+@Table(name = "change_tombstones")
+public class ChangeTombstone {
+
+    public static final String TICKET = "TICKET";
+    public static final String COMMENT = "COMMENT";
+
+    @Id
+    // Assigned by the column default so the change feed watermark covers it
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "change_seq")
+    private Long changeSeq;
+
+    @Column(name = "entity_type", nullable = false, length = 20)
+    private String entityType;
+
+    @Column(name = "entity_id", nullable = false)
+    private UUID entityId;
+
+    @Column(name = "ticket_id", nullable = false)
+    private UUID ticketId;
+
+    @Column(name = "created_by_id")
+    private UUID createdById;
+
+    @Column(name = "assigned_to_id")
+    private UUID assignedToId;
+
+    @Column(name = "deleted_at", nullable = false)
+    private LocalDateTime deletedAt;
+
+    // Constructors
+    public ChangeTombstone() {}
+
+    public ChangeTombstone(String entityType, UUID entityId, Ticket ticket) {
+        this.entityType = entityType;
+        this.entityId = entityId;
+        this.ticketId = ticket.getId();
+        this.createdById = ticket.getCreatedBy() != null ? ticket.getCreatedBy().getId() : null;
+        this.assignedToId = ticket.getAssignedTo() != null ? ticket.getAssignedTo().getId() : null;
+        this.deletedAt = LocalDateTime.now();
+    }
+
+    // Static factory methods
+    public static ChangeTombstone forTicket(Ticket ticket) {
+        return new ChangeTombstone(TICKET, ticket.getId(), ticket);
+    }
+
+    public static ChangeTombstone forComment(Comment comment) {
+        return new ChangeTombstone(COMMENT, comment.getId(), comment.getTicket());
+    }
+
+    // Getters and Setters
+    public Long getChangeSeq() {
+        return changeSeq;
+    }
+
+    public void setChangeSeq(Long changeSeq) {
+        this.changeSeq = changeSeq;
+    }
+
+    public String getEntityType() {
+        return entityType;
+    }
+
+    public void setEntityType(String entityType) {
+        this.entityType = entityType;
+    }
+
+    public UUID getEntityId() {
+        return entityId;
+    }
+
+    public void setEntityId(UUID entityId) {
+        this.entityId = entityId;
+    }
+
+    public UUID getTicketId() {
+        return ticketId;
+    }
+
+    public void setTicketId(UUID ticketId) {
+        this.ticketId = ticketId;
+    }
+
+    public UUID getCreatedById() {
+        return createdById;
+    }
+
+    public void setCreatedById(UUID createdById) {
+        this.createdById = createdById;
+    }
+
+    public UUID getAssignedToId() {
+        return assignedToId;
+    }
+
+    public void setAssignedToId(UUID assignedToId) {
+        this.assignedToId = assignedToId;
+    }
+
+    public LocalDateTime getDeletedAt() {
+        return deletedAt;
+    }
+
+    public void setDeletedAt(LocalDateTime deletedAt) {
+        this.deletedAt = deletedAt;
+    }
+}
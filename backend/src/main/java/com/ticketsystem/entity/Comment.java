@@ -36,6 +36,10 @@ public class Comment {
     @Column(name = "updated_at", nullable = false)
     private LocalDateTime updatedAt;
 
+    // Assigned by the database on insert and bumped by trigger on every update
+    @Column(name = "change_seq", insertable = false, updatable = false)
+    private Long changeSeq;
+
     // Constructors
     public Comment() {}
 
@@ -54,11 +58,6 @@ public class Comment {
         return user.getRole().hasAdminPrivileges() || user.equals(this.author);
     }
 
-    public boolean isSystemComment() {
-        // System comments could be identified by a special author or content pattern
-        return this.content.startsWith("[SYSTEM]");
-    }
-
     public boolean isEdited() {
         return this.updatedAt != null && !this.updatedAt.equals(this.createdAt);
     }
@@ -111,4 +110,8 @@ public class Comment {
     public void setUpdatedAt(LocalDateTime updatedAt) {
         this.updatedAt = updatedAt;
     }
+
+    public Long getChangeSeq() {
+        return changeSeq;
+    }
 }
@@ -55,6 +55,14 @@ public class Ticket {
     @Column(name = "closed_at")
     private LocalDateTime closedAt;
 
+    // Assigned by the database on insert and bumped by trigger on every update
+    @Column(name = "change_seq", insertable = false, updatable = false)
+    private Long changeSeq;
+
+    // Set on tickets read back from the archive tables; those are detached and read-only
+    @Transient
+    private boolean archived;
+
     @OneToMany(mappedBy = "ticket", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private List<Comment> comments = new ArrayList<>();
 
@@ -127,6 +135,21 @@ public class Ticket {
                (user.equals(this.assignedTo) && this.isAssigned());
     }
 
+    // Lower bound for created_at of anything attached to this ticket. Comments and audit
+    // events never predate their ticket; the day of slack covers clock skew between nodes.
+    // Passing it to time-partitioned queries lets them skip partitions older than the ticket.
+    public LocalDateTime getActivityLowerBound() {
+        return createdAt != null ? createdAt.minusDays(1) : LocalDateTime.MIN;
+    }
+
+    public boolean isArchived() {
+        return archived;
+    }
+
+    public void setArchived(boolean archived) {
+        this.archived = archived;
+    }
+
     public long getCommentCount() {
         return comments != null ? comments.size() : 0;
     }
@@ -224,6 +247,10 @@ public class Ticket {
         this.closedAt = closedAt;
     }
 
+    public Long getChangeSeq() {
+        return changeSeq;
+    }
+
     public List<Comment> getComments() {
         return comments;
     }
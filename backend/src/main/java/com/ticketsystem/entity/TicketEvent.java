@@ -0,0 +1,98 @@
+package com.ticketsystem.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Append-only audit entry for a single change to a ticket. Rows are inserted in
+ * batches by the outbox relay and never updated.
+ */
+@Entity
+@Table(name = "ticket_events")
+public class TicketEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "ticket_id", nullable = false, updatable = false)
+    private UUID ticketId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "event_type", nullable = false, updatable = false, length = 30)
+    private TicketEventType eventType;
+
+    @Column(name = "actor_id", updatable = false)
+    private UUID actorId;
+
+    @Column(name = "old_value", updatable = false, columnDefinition = "TEXT")
+    private String oldValue;
+
+    @Column(name = "new_value", updatable = false, columnDefinition = "TEXT")
+    private String newValue;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    // Constructors
+    public TicketEvent() {}
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public UUID getTicketId() {
+        return ticketId;
+    }
+
+    public void setTicketId(UUID ticketId) {
+        this.ticketId = ticketId;
+    }
+
+    public TicketEventType getEventType() {
+        return eventType;
+    }
+
+    public void setEventType(TicketEventType eventType) {
+        this.eventType = eventType;
+    }
+
+    public UUID getActorId() {
+        return actorId;
+    }
+
+    public void setActorId(UUID actorId) {
+        this.actorId = actorId;
+    }
+
+    public String getOldValue() {
+        return oldValue;
+    }
+
+    public void setOldValue(String oldValue) {
+        this.oldValue = oldValue;
+    }
+
+    public String getNewValue() {
+        return newValue;
+    }
+
+    public void setNewValue(String newValue) {
+        this.newValue = newValue;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
@@ -0,0 +1,16 @@
+package com.ticketsystem.entity;
+
+public enum TicketEventType {
+    CREATED,
+    SUBJECT_CHANGED,
+    DESCRIPTION_CHANGED,
+    PRIORITY_CHANGED,
+    STATUS_CHANGED,
+    ASSIGNED,
+    UNASSIGNED,
+    NOTE; // Free-text entry migrated from legacy "[SYSTEM]" comments
+
+    public boolean referencesUsers() {
+        return this == ASSIGNED || this == UNASSIGNED;
+    }
+}
@@ -49,6 +49,10 @@ public class User implements UserDetails {
     @Column(name = "updated_at", nullable = false)
     private LocalDateTime updatedAt;
 
+    // Tokens issued before this are rejected in stateless principal mode
+    @Column(name = "tokens_valid_after")
+    private LocalDateTime tokensValidAfter;
+
     // Constructors
     public User() {}
 
@@ -168,4 +172,25 @@ public class User implements UserDetails {
     public void setUpdatedAt(LocalDateTime updatedAt) {
         this.updatedAt = updatedAt;
     }
+
+    // Identity is the id, so a cached principal equals the same user loaded in another session
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof User other)) return false;
+        return id != null && id.equals(other.getId());
+    }
+
+    @Override
+    public int hashCode() {
+        return User.class.hashCode();
+    }
+
+    public LocalDateTime getTokensValidAfter() {
+        return tokensValidAfter;
+    }
+
+    public void setTokensValidAfter(LocalDateTime tokensValidAfter) {
+        this.tokensValidAfter = tokensValidAfter;
+    }
 }
@@ -0,0 +1,14 @@
+package com.ticketsystem.event;
+
+import java.util.List;
+
+/**
+ * In-process subscriber for events relayed from the transactional outbox.
+ *
+ * Handlers are called with each claimed batch inside the relay transaction and must
+ * tolerate redelivery: a batch is retried when any handler fails or the commit does.
+ */
+public interface OutboxEventHandler {
+
+    void handle(List<TicketChangeEvent> events);
+}
@@ -0,0 +1,137 @@
+package com.ticketsystem.event;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ticketsystem.entity.OutboxEvent;
+import com.ticketsystem.repository.OutboxEventRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Drains the outbox in batches and hands the events to every {@link OutboxEventHandler}.
+ *
+ * Batches are claimed with {@code FOR UPDATE SKIP LOCKED}, so any number of nodes can
+ * relay concurrently without handing the same event out twice at the same time. A
+ * batch is deleted in the transaction that dispatched it, giving at-least-once
+ * delivery. When a batch fails, its events are retried one by one so a single bad
+ * event only delays itself; it is backed off and eventually parked as failed.
+ */
+@Component
+public class OutboxRelay {
+
+    private static final Logger logger = LoggerFactory.getLogger(OutboxRelay.class);
+
+    @Value("${outbox.batch-size:100}")
+    private int batchSize;
+
+    @Value("${outbox.max-batches-per-run:20}")
+    private int maxBatchesPerRun;
+
+    @Value("${outbox.max-attempts:10}")
+    private int maxAttempts;
+
+    @Value("${outbox.retry-backoff-ms:1000}")
+    private long retryBackoffMs;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private List<OutboxEventHandler> handlers;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final AtomicLong relayedEvents = new AtomicLong();
+    private final AtomicLong failedAttempts = new AtomicLong();
+
+    @Scheduled(fixedDelayString = "${outbox.poll-interval-ms:500}")
+    public void relay() {
+        for (int i = 0; i < maxBatchesPerRun; i++) {
+            if (relayBatch() < batchSize) {
+                break;
+            }
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("pendingEvents", outboxEventRepository.countPending());
+        stats.put("failedEvents", outboxEventRepository.countFailed());
+        stats.put("relayedEvents", relayedEvents.get());
+        stats.put("failedAttempts", failedAttempts.get());
+        stats.put("handlers", handlers.size());
+        return stats;
+    }
+
+    // Helper methods
+    private int relayBatch() {
+        List<Long> claimedIds = new ArrayList<>();
+        try {
+            Integer relayed = transactionTemplate.execute(status -> {
+                List<OutboxEvent> batch = outboxEventRepository.lockNextBatch(batchSize);
+                batch.forEach(event -> claimedIds.add(event.getId()));
+                if (!batch.isEmpty()) {
+                    dispatch(batch);
+                    outboxEventRepository.deleteAllInBatch(batch);
+                }
+                return batch.size();
+            });
+            relayedEvents.addAndGet(relayed != null ? relayed : 0);
+            return relayed != null ? relayed : 0;
+        } catch (RuntimeException e) {
+            logger.warn("Outbox batch of {} events failed, retrying individually: {}", claimedIds.size(), e.getMessage());
+            claimedIds.forEach(this::relaySingle);
+            return claimedIds.size();
+        }
+    }
+
+    private void relaySingle(Long id) {
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                outboxEventRepository.lockById(id).ifPresent(event -> {
+                    dispatch(List.of(event));
+                    outboxEventRepository.delete(event);
+                    relayedEvents.incrementAndGet();
+                }));
+        } catch (RuntimeException e) {
+            failedAttempts.incrementAndGet();
+            transactionTemplate.executeWithoutResult(status ->
+                outboxEventRepository.findById(id).ifPresent(event -> {
+                    event.recordFailure(e.getMessage(), maxAttempts, retryBackoffMs);
+                    if (event.isFailed()) {
+                        logger.error("Outbox event {} ({}) failed {} times, parking it: {}",
+                            id, event.getEventType(), event.getAttempts(), e.getMessage());
+                    }
+                }));
+        }
+    }
+
+    private void dispatch(List<OutboxEvent> batch) {
+        List<TicketChangeEvent> events = new ArrayList<>(batch.size());
+        for (OutboxEvent outboxEvent : batch) {
+            try {
+                events.add(objectMapper.readValue(outboxEvent.getPayload(), TicketChangeEvent.class));
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException("Unreadable outbox payload for event " + outboxEvent.getId(), e);
+            }
+        }
+        for (OutboxEventHandler handler : handlers) {
+            handler.handle(events);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.ticketsystem.event;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ticketsystem.entity.OutboxEvent;
+import com.ticketsystem.repository.OutboxEventRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Writes every ticket change into the outbox. Runs synchronously on the publishing
+ * thread, so the outbox row commits or rolls back with the change itself.
+ */
+@Component
+public class OutboxWriter {
+
+    private static final String AGGREGATE_TYPE = "TICKET";
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @EventListener
+    public void onTicketChange(TicketChangeEvent event) {
+        try {
+            outboxEventRepository.save(new OutboxEvent(
+                AGGREGATE_TYPE,
+                event.getTicketId(),
+                event.getType().name(),
+                objectMapper.writeValueAsString(event)
+            ));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize " + event.getType() + " event for outbox", e);
+        }
+    }
+}
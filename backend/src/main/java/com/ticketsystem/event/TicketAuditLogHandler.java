@@ -0,0 +1,49 @@
+package com.ticketsystem.event;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Appends the typed changes of each relayed ticket event to {@code ticket_events}.
+ *
+ * A whole outbox batch becomes a single JDBC batch. Rows for tickets deleted before
+ * the relay ran are skipped by the insert itself rather than failing on the foreign key.
+ */
+@Component
+public class TicketAuditLogHandler implements OutboxEventHandler {
+
+    private static final String INSERT_SQL =
+        "INSERT INTO ticket_events (ticket_id, event_type, actor_id, old_value, new_value, created_at) " +
+        "SELECT ?, ?, ?, ?, ?, ? WHERE EXISTS (SELECT 1 FROM tickets WHERE id = ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void handle(List<TicketChangeEvent> events) {
+        List<Object[]> rows = new ArrayList<>();
+        for (TicketChangeEvent event : events) {
+            if (event.getChanges() == null || event.getType().isCommentChange()) {
+                continue;
+            }
+            Timestamp occurredAt = Timestamp.valueOf(event.getOccurredAt());
+            for (TicketFieldChange change : event.getChanges()) {
+                rows.add(new Object[] {
+                    event.getTicketId(), change.getType().name(), event.getActorId(),
+                    change.getOldValue(), change.getNewValue(), occurredAt, event.getTicketId()
+                });
+            }
+        }
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_SQL, rows, new int[] {
+                Types.OTHER, Types.VARCHAR, Types.OTHER, Types.VARCHAR, Types.VARCHAR, Types.TIMESTAMP, Types.OTHER
+            });
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.ticketsystem.event;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.ticketsystem.entity.Comment;
+import com.ticketsystem.entity.Ticket;
+import com.ticketsystem.entity.TicketPriority;
+import com.ticketsystem.entity.TicketStatus;
+import com.ticketsystem.entity.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Compact description of a change to a ticket or one of its comments.
+ * Published by the services inside the request transaction; listeners decide
+ * whether they run before or after commit.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TicketChangeEvent {
+
+    private final TicketChangeType type;
+    private final UUID ticketId;
+    private final UUID commentId;
+    private final UUID actorId;
+    private final UUID createdById;
+    private final UUID assignedToId;
+    private final TicketStatus status;
+    private final TicketPriority priority;
+    private final List<TicketFieldChange> changes;
+    private final LocalDateTime occurredAt;
+
+    @JsonCreator
+    public TicketChangeEvent(TicketChangeType type, UUID ticketId, UUID commentId, UUID actorId,
+                             UUID createdById, UUID assignedToId, TicketStatus status,
+                             TicketPriority priority, List<TicketFieldChange> changes, LocalDateTime occurredAt) {
+        this.type = type;
+        this.ticketId = ticketId;
+        this.commentId = commentId;
+        this.actorId = actorId;
+        this.createdById = createdById;
+        this.assignedToId = assignedToId;
+        this.status = status;
+        this.priority = priority;
+        this.changes = changes;
+        this.occurredAt = occurredAt;
+    }
+
+    // Static factory methods
+    public static TicketChangeEvent forTicket(TicketChangeType type, Ticket ticket, User actor) {
+        return forTicket(type, ticket, actor, null);
+    }
+
+    public static TicketChangeEvent forTicket(TicketChangeType type, Ticket ticket, User actor,
+                                              List<TicketFieldChange> changes) {
+        return new TicketChangeEvent(
+            type,
+            ticket.getId(),
+            null,
+            actor != null ? actor.getId() : null,
+            ticket.getCreatedBy() != null ? ticket.getCreatedBy().getId() : null,
+            ticket.getAssignedTo() != null ? ticket.getAssignedTo().getId() : null,
+            ticket.getStatus(),
+            ticket.getPriority(),
+            changes,
+            LocalDateTime.now()
+        );
+    }
+
+    public static TicketChangeEvent forComment(TicketChangeType type, Comment comment, User actor) {
+        Ticket ticket = comment.getTicket();
+        return new TicketChangeEvent(
+            type,
+            ticket.getId(),
+            comment.getId(),
+            actor != null ? actor.getId() : null,
+            ticket.getCreatedBy() != null ? ticket.getCreatedBy().getId() : null,
+            ticket.getAssignedTo() != null ? ticket.getAssignedTo().getId() : null,
+            ticket.getStatus(),
+            ticket.getPriority(),
+            null,
+            LocalDateTime.now()
+        );
+    }
+
+    public boolean isVisibleTo(UUID userId, boolean supportPrivileges) {
+        return supportPrivileges ||
+               (userId != null && (userId.equals(createdById) || userId.equals(assignedToId)));
+    }
+
+    // Getters
+    public TicketChangeType getType() {
+        return type;
+    }
+
+    public UUID getTicketId() {
+        return ticketId;
+    }
+
+    public UUID getCommentId() {
+        return commentId;
+    }
+
+    public UUID getActorId() {
+        return actorId;
+    }
+
+    public UUID getCreatedById() {
+        return createdById;
+    }
+
+    public UUID getAssignedToId() {
+        return assignedToId;
+    }
+
+    public TicketStatus getStatus() {
+        return status;
+    }
+
+    public TicketPriority getPriority() {
+        return priority;
+    }
+
+    public List<TicketFieldChange> getChanges() {
+        return changes;
+    }
+
+    public LocalDateTime getOccurredAt() {
+        return occurredAt;
+    }
+}
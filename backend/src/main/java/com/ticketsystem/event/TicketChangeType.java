@@ -0,0 +1,18 @@
+package com.ticketsystem.event;
+
+public enum TicketChangeType {
+    TICKET_CREATED,
+    TICKET_UPDATED,
+    TICKET_DELETED,
+    COMMENT_CREATED,
+    COMMENT_UPDATED,
+    COMMENT_DELETED;
+
+    public boolean isCommentChange() {
+        return this == COMMENT_CREATED || this == COMMENT_UPDATED || this == COMMENT_DELETED;
+    }
+
+    public boolean isDeletion() {
+        return this == TICKET_DELETED || this == COMMENT_DELETED;
+    }
+}
@@ -0,0 +1,260 @@
+package com.ticketsystem.event;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ticketsystem.entity.User;
+import com.ticketsystem.exception.ServiceUnavailableException;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fans committed ticket and comment changes out to Server-Sent Event subscribers.
+ *
+ * Connections are held as async {@link SseEmitter}s, so no request thread is parked
+ * per subscriber. Publishing only enqueues into each subscriber's bounded buffer; a
+ * small dispatcher pool drains the buffers, and a subscriber whose buffer overflows
+ * is evicted instead of slowing everyone else down.
+ */
+@Component
+public class TicketEventBroadcaster {
+
+    private static final Logger logger = LoggerFactory.getLogger(TicketEventBroadcaster.class);
+
+    @Value("${stream.max-subscribers:10000}")
+    private int maxSubscribers;
+
+    @Value("${stream.buffer-size:64}")
+    private int bufferSize;
+
+    @Value("${stream.timeout-ms:1800000}")
+    private long timeoutMs;
+
+    @Value("${stream.dispatch-threads:4}")
+    private int dispatchThreads;
+
+    @Value("${stream.heartbeat-interval-ms:25000}")
+    private long heartbeatIntervalMs;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final Map<UUID, Subscriber> subscribers = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicLong publishedEvents = new AtomicLong();
+    private final AtomicLong evictedSubscribers = new AtomicLong();
+
+    private Executor dispatcher;
+    private ScheduledExecutorService heartbeatScheduler;
+
+    @PostConstruct
+    public void start() {
+        if (virtualThreads) {
+            // One virtual thread per drain, so a slow client only parks its own thread
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("sse-dispatch-");
+            executor.setVirtualThreads(true);
+            dispatcher = executor;
+        } else {
+            dispatcher = Executors.newFixedThreadPool(dispatchThreads, new CustomizableThreadFactory("sse-dispatch-"));
+        }
+        heartbeatScheduler = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("sse-heartbeat-"));
+        heartbeatScheduler.scheduleAtFixedRate(this::sendHeartbeats,
+            heartbeatIntervalMs, heartbeatIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        heartbeatScheduler.shutdownNow();
+        if (dispatcher instanceof ExecutorService executorService) {
+            executorService.shutdownNow();
+        } else if (dispatcher instanceof SimpleAsyncTaskExecutor executor) {
+            executor.close();
+        }
+        subscribers.values().forEach(subscriber -> subscriber.emitter.complete());
+        subscribers.clear();
+    }
+
+    public SseEmitter subscribe(User user, UUID ticketId) {
+        if (subscribers.size() >= maxSubscribers) {
+            throw new ServiceUnavailableException("Too many live update subscribers, please retry later");
+        }
+
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Subscriber subscriber = new Subscriber(user.getId(), user.getRole().hasSupportPrivileges(),
+            ticketId, emitter, bufferSize);
+        subscribers.put(subscriber.id, subscriber);
+
+        emitter.onCompletion(() -> subscribers.remove(subscriber.id));
+        emitter.onTimeout(() -> subscribers.remove(subscriber.id));
+        emitter.onError(e -> subscribers.remove(subscriber.id));
+
+        logger.debug("User {} subscribed to {} updates", user.getEmail(),
+            ticketId != null ? "ticket " + ticketId : "all ticket");
+        return emitter;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onTicketChange(TicketChangeEvent event) {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+
+        String payload;
+        try {
+            payload = objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            logger.error("Failed to serialize {} event for ticket {}: {}", event.getType(), event.getTicketId(), e.getMessage());
+            return;
+        }
+
+        // Serialize once, share the same frame across every matching subscriber
+        PendingEvent pending = new PendingEvent(Long.toString(sequence.incrementAndGet()), event.getType().name(), payload);
+        publishedEvents.incrementAndGet();
+
+        for (Subscriber subscriber : subscribers.values()) {
+            if (subscriber.accepts(event)) {
+                enqueue(subscriber, pending);
+            }
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("subscribers", subscribers.size());
+        stats.put("maxSubscribers", maxSubscribers);
+        stats.put("bufferSize", bufferSize);
+        stats.put("publishedEvents", publishedEvents.get());
+        stats.put("evictedSubscribers", evictedSubscribers.get());
+        return stats;
+    }
+
+    // Helper methods
+    private void sendHeartbeats() {
+        for (Subscriber subscriber : subscribers.values()) {
+            enqueue(subscriber, PendingEvent.HEARTBEAT);
+        }
+    }
+
+    private void enqueue(Subscriber subscriber, PendingEvent pending) {
+        if (!subscriber.queue.offer(pending)) {
+            evict(subscriber);
+            return;
+        }
+        scheduleDrain(subscriber);
+    }
+
+    private void scheduleDrain(Subscriber subscriber) {
+        if (subscriber.draining.compareAndSet(false, true)) {
+            try {
+                dispatcher.execute(() -> drain(subscriber));
+            } catch (RejectedExecutionException e) {
+                subscriber.draining.set(false);
+            }
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        try {
+            PendingEvent pending;
+            while ((pending = subscriber.queue.poll()) != null) {
+                if (pending == PendingEvent.HEARTBEAT) {
+                    subscriber.emitter.send(SseEmitter.event().comment("keepalive"));
+                } else {
+                    subscriber.emitter.send(SseEmitter.event()
+                        .id(pending.id)
+                        .name(pending.name)
+                        .data(pending.payload, MediaType.APPLICATION_JSON));
+                }
+            }
+        } catch (IOException | IllegalStateException e) {
+            // Client went away; the emitter callbacks may not fire for a broken pipe, so complete
+            // the async request here rather than leaving it open until the timeout
+            subscribers.remove(subscriber.id);
+            subscriber.queue.clear();
+            subscriber.emitter.completeWithError(e);
+        } finally {
+            subscriber.draining.set(false);
+            if (!subscriber.queue.isEmpty() && subscribers.containsKey(subscriber.id)) {
+                scheduleDrain(subscriber);
+            }
+        }
+    }
+
+    private void evict(Subscriber subscriber) {
+        if (subscribers.remove(subscriber.id) != null) {
+            evictedSubscribers.incrementAndGet();
+            subscriber.queue.clear();
+            subscriber.emitter.complete();
+            logger.warn("Evicted slow live update subscriber {} (user {})", subscriber.id, subscriber.userId);
+        }
+    }
+
+    private static final class Subscriber {
+        private final UUID id = UUID.randomUUID();
+        private final UUID userId;
+        private final boolean supportPrivileges;
+        private final UUID ticketId;
+        private final SseEmitter emitter;
+        private final Queue<PendingEvent> queue;
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        private Subscriber(UUID userId, boolean supportPrivileges, UUID ticketId, SseEmitter emitter, int bufferSize) {
+            this.userId = userId;
+            this.supportPrivileges = supportPrivileges;
+            this.ticketId = ticketId;
+            this.emitter = emitter;
+            this.queue = new ArrayBlockingQueue<>(bufferSize);
+        }
+
+        private boolean accepts(TicketChangeEvent event) {
+            if (ticketId != null) {
+                // Access to a single ticket is checked when subscribing
+                return ticketId.equals(event.getTicketId());
+            }
+            return event.isVisibleTo(userId, supportPrivileges);
+        }
+    }
+
+    private static final class PendingEvent {
+        private static final PendingEvent HEARTBEAT = new PendingEvent(null, null, null);
+
+        private final String id;
+        private final String name;
+        private final String payload;
+
+        private PendingEvent(String id, String name, String payload) {
+            this.id = id;
+            this.name = name;
+            this.payload = payload;
+        }
+    }
+}
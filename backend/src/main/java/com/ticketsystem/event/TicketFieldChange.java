@@ -0,0 +1,43 @@
+package com.ticketsystem.event;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.ticketsystem.entity.TicketEventType;
+
+/**
+ * One typed change carried by a {@link TicketChangeEvent} and recorded in the audit log.
+ * Values are enum names or user ids, never display text.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TicketFieldChange {
+
+    private final TicketEventType type;
+    private final String oldValue;
+    private final String newValue;
+
+    @JsonCreator
+    public TicketFieldChange(TicketEventType type, String oldValue, String newValue) {
+        this.type = type;
+        this.oldValue = oldValue;
+        this.newValue = newValue;
+    }
+
+    public static TicketFieldChange of(TicketEventType type, Object oldValue, Object newValue) {
+        return new TicketFieldChange(type,
+            oldValue != null ? oldValue.toString() : null,
+            newValue != null ? newValue.toString() : null);
+    }
+
+    // Getters
+    public TicketEventType getType() {
+        return type;
+    }
+
+    public String getOldValue() {
+        return oldValue;
+    }
+
+    public String getNewValue() {
+        return newValue;
+    }
+}
@@ -0,0 +1,24 @@
+package com.ticketsystem.repository;
+
+import org.hibernate.boot.model.FunctionContributions;
+import org.hibernate.boot.model.FunctionContributor;
+import org.hibernate.type.StandardBasicTypes;
+
+/**
+ * Lets ticket queries match attachment text with {@code attachment_text_matches(contentHash, query)}.
+ * JPQL has no operator for {@code @@}, so the call renders as a subquery on
+ * {@code attachment_texts}, which Postgres answers from the search_vector GIN index.
+ * Registered through META-INF/services.
+ */
+public class AttachmentTextFunctionContributor implements FunctionContributor {
+
+    @Override
+    public void contributeFunctions(FunctionContributions functionContributions) {
+        functionContributions.getFunctionRegistry().registerPattern(
+            "attachment_text_matches",
+            "(?1 IN (SELECT x.content_hash FROM attachment_texts x " +
+            "WHERE x.search_vector @@ plainto_tsquery('simple', ?2)))",
+            functionContributions.getTypeConfiguration().getBasicTypeRegistry()
+                .resolve(StandardBasicTypes.BOOLEAN));
+    }
+}
@@ -0,0 +1,27 @@
+package com.ticketsystem.repository;
+
+import com.ticketsystem.entity.ChangeTombstone;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface ChangeTombstoneRepository extends JpaRepository<ChangeTombstone, Long> {
+
+    // Find deletions after a sequence number
+    @Query("SELECT t FROM ChangeTombstone t WHERE t.changeSeq > :since AND t.changeSeq <= :until ORDER BY t.changeSeq ASC")
+    List<ChangeTombstone> findChangedSince(@Param("since") long since, @Param("until") long until, Pageable pageable);
+
+    @Query("SELECT t FROM ChangeTombstone t WHERE t.changeSeq > :since AND t.changeSeq <= :until AND " +
+           "(t.createdById = :userId OR t.assignedToId = :userId) ORDER BY t.changeSeq ASC")
+    List<ChangeTombstone> findChangedSinceForUser(@Param("since") long since, @Param("until") long until, @Param("userId") UUID userId, Pageable pageable);
+
+    // Highest change sequence no open transaction can still write below
+    @Query(value = "SELECT change_seq_watermark()", nativeQuery = true)
+    long findChangeSeqWatermark();
+}
@@ -22,6 +22,17 @@ public interface CommentRepository extends JpaRepository<Comment, UUID> {
     
     Page<Comment> findByTicket(Ticket ticket, Pageable pageable);
 
+    // Comments are partitioned by created_at; bounding it by the ticket prunes older partitions
+    @Query("SELECT c FROM Comment c WHERE c.ticket = :ticket AND c.createdAt >= :since ORDER BY c.createdAt ASC")
+    List<Comment> findByTicketCreatedSince(@Param("ticket") Ticket ticket, @Param("since") LocalDateTime since);
+
+    @Query("SELECT c FROM Comment c WHERE c.ticket = :ticket AND c.createdAt >= :since")
+    Page<Comment> findByTicketCreatedSince(@Param("ticket") Ticket ticket, @Param("since") LocalDateTime since,
+                                           Pageable pageable);
+
+    @Query("SELECT COUNT(c) FROM Comment c WHERE c.ticket = :ticket AND c.createdAt >= :since")
+    long countByTicketCreatedSince(@Param("ticket") Ticket ticket, @Param("since") LocalDateTime since);
+
     // Find comments by author
     Page<Comment> findByAuthor(User author, Pageable pageable);
     
@@ -66,14 +77,18 @@ public interface CommentRepository extends JpaRepository<Comment, UUID> {
                                         @Param("search") String search,
                                         Pageable pageable);
 
-    // Find system comments (if we implement them)
-    @Query("SELECT c FROM Comment c WHERE c.content LIKE '[SYSTEM]%'")
-    List<Comment> findSystemComments();
-
     // Find comments that mention a user (if we implement @mentions)
     @Query("SELECT c FROM Comment c WHERE c.content LIKE CONCAT('%@', :username, '%')")
     List<Comment> findCommentsMentioningUser(@Param("username") String username);
 
+    // Change feed: comments changed after a sequence number
+    @Query("SELECT c FROM Comment c WHERE c.changeSeq > :since AND c.changeSeq <= :until ORDER BY c.changeSeq ASC")
+    List<Comment> findChangedSince(@Param("since") long since, @Param("until") long until, Pageable pageable);
+
+    @Query("SELECT c FROM Comment c WHERE c.changeSeq > :since AND c.changeSeq <= :until AND " +
+           "(c.ticket.createdBy = :user OR c.ticket.assignedTo = :user) ORDER BY c.changeSeq ASC")
+    List<Comment> findChangedSinceForUser(@Param("since") long since, @Param("until") long until, @Param("user") User user, Pageable pageable);
+
     // Statistics
     @Query("SELECT COUNT(c) FROM Comment c WHERE c.createdAt >= :since")
     long countCommentsCreatedSince(@Param("since") LocalDateTime since);
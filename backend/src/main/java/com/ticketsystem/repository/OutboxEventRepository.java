@@ -0,0 +1,30 @@
+package com.ticketsystem.repository;
+
+import com.ticketsystem.entity.OutboxEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    // Claim the next batch of pending events; rows locked by other nodes are skipped
+    @Query(value = "SELECT * FROM outbox_events " +
+                   "WHERE failed_at IS NULL AND available_at <= CURRENT_TIMESTAMP " +
+                   "ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<OutboxEvent> lockNextBatch(@Param("limit") int limit);
+
+    @Query(value = "SELECT * FROM outbox_events WHERE id = :id FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    Optional<OutboxEvent> lockById(@Param("id") Long id);
+
+    // Statistics
+    @Query("SELECT COUNT(e) FROM OutboxEvent e WHERE e.failedAt IS NULL")
+    long countPending();
+
+    @Query("SELECT COUNT(e) FROM OutboxEvent e WHERE e.failedAt IS NOT NULL")
+    long countFailed();
+}
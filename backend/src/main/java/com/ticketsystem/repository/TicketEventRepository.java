@@ -0,0 +1,17 @@
+package com.ticketsystem.repository;
+
+import com.ticketsystem.entity.TicketEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface TicketEventRepository extends JpaRepository<TicketEvent, Long> {
+
+    // Timeline for a ticket; the created_at bound prunes partitions older than the ticket
+    List<TicketEvent> findByTicketIdAndCreatedAtGreaterThanEqualOrderByCreatedAtAscIdAsc(UUID ticketId,
+                                                                                       LocalDateTime since);
+}
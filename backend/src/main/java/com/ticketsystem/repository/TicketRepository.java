@@ -51,7 +51,9 @@ public interface TicketRepository extends JpaRepository<Ticket, UUID> {
            "(:createdBy IS NULL OR t.createdBy = :createdBy) AND " +
            "(:search IS NULL OR " +
            "LOWER(t.subject) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
-           "LOWER(t.description) LIKE LOWER(CONCAT('%', :search, '%')))")
+           "LOWER(t.description) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
+           "EXISTS (SELECT 1 FROM Attachment a WHERE a.ticket = t AND " +
+           "attachment_text_matches(a.contentHash, :search) = true))")
     Page<Ticket> findTicketsWithFilters(@Param("status") TicketStatus status,
                                        @Param("priority") TicketPriority priority,
                                        @Param("assignedTo") User assignedTo,
@@ -59,11 +61,14 @@ public interface TicketRepository extends JpaRepository<Ticket, UUID> {
                                        @Param("search") String search,
                                        Pageable pageable);
 
-    // Search tickets by text
+    // Search tickets by text, including tickets whose attachment contents matched
     @Query("SELECT t FROM Ticket t WHERE " +
            "LOWER(t.subject) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
-           "LOWER(t.description) LIKE LOWER(CONCAT('%', :search, '%'))")
-    Page<Ticket> searchTickets(@Param("search") String search, Pageable pageable);
+           "LOWER(t.description) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
+           "EXISTS (SELECT 1 FROM Attachment a WHERE a.ticket = t AND " +
+           "attachment_text_matches(a.contentHash, :search) = true)")
+    Page<Ticket> searchTickets(@Param("search") String search,
+                               Pageable pageable);
 
     // Find tickets created in date range
     @Query("SELECT t FROM Ticket t WHERE t.createdAt BETWEEN :startDate AND :endDate")
@@ -118,6 +123,14 @@ public interface TicketRepository extends JpaRepository<Ticket, UUID> {
     @Query("SELECT AVG(EXTRACT(EPOCH FROM (t.resolvedAt - t.createdAt))) FROM Ticket t WHERE t.resolvedAt IS NOT NULL")
     Double getAverageResolutionTimeInSeconds();
 
+    // Change feed: tickets changed after a sequence number
+    @Query("SELECT t FROM Ticket t WHERE t.changeSeq > :since AND t.changeSeq <= :until ORDER BY t.changeSeq ASC")
+    List<Ticket> findChangedSince(@Param("since") long since, @Param("until") long until, Pageable pageable);
+
+    @Query("SELECT t FROM Ticket t WHERE t.changeSeq > :since AND t.changeSeq <= :until AND " +
+           "(t.createdBy = :user OR t.assignedTo = :user) ORDER BY t.changeSeq ASC")
+    List<Ticket> findChangedSinceForUser(@Param("since") long since, @Param("until") long until, @Param("user") User user, Pageable pageable);
+
     // Find tickets with ratings
     @Query("SELECT t FROM Ticket t WHERE t.rating IS NOT NULL")
     Page<Ticket> findTicketsWithRatings(Pageable pageable);
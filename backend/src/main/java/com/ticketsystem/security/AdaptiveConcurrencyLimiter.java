@@ -0,0 +1,189 @@
+package com.ticketsystem.security;
+
+import com.ticketsystem.exception.ServiceUnavailableException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Adaptive cap on in-flight requests per endpoint group, so a slow database sheds load
+ * with 503s instead of queueing every request until all of them time out together.
+ *
+ * Each group learns its no-load latency and, once per sample window, scales its limit by
+ * the ratio between that and the latency it currently sees (a gradient limiter). A little
+ * headroom is always added so the limit can grow again when latency recovers. Requests
+ * below {@link Priority#CRITICAL} may only use a share of the limit, so agent writes are
+ * the last to be shed.
+ */
+@Component
+public class AdaptiveConcurrencyLimiter {
+
+    public enum Priority {
+        CRITICAL, NORMAL, LOW
+    }
+
+    @Value("${concurrency-limit.enabled:true}")
+    private boolean enabled;
+
+    @Value("${concurrency-limit.initial-limit:50}")
+    private int initialLimit;
+
+    @Value("${concurrency-limit.min-limit:5}")
+    private int minLimit;
+
+    @Value("${concurrency-limit.max-limit:500}")
+    private int maxLimit;
+
+    @Value("${concurrency-limit.tolerance:2.0}")
+    private double tolerance;
+
+    @Value("${concurrency-limit.window-ms:1000}")
+    private long windowMs;
+
+    @Value("${concurrency-limit.min-rtt-reset-windows:60}")
+    private int minRttResetWindows;
+
+    @Value("${concurrency-limit.normal-share:0.9}")
+    private double normalShare;
+
+    @Value("${concurrency-limit.low-share:0.5}")
+    private double lowShare;
+
+    private final Map<String, Group> groups = new LinkedHashMap<>();
+
+    @PostConstruct
+    void init() {
+        for (String name : new String[] {"tickets", "comments", "admin", "auth"}) {
+            groups.put(name, new Group(name));
+        }
+    }
+
+    // Null for paths that are not limited
+    public Group groupFor(String servletPath) {
+        // Transfers last as long as the client's connection, which says nothing about backend health
+        if (!enabled || servletPath.contains("/attachments")
+                || servletPath.startsWith("/uploads")) {
+            return null;
+        }
+        int end = servletPath.indexOf('/', 1);
+        String first = end > 0 ? servletPath.substring(1, end) : servletPath.substring(1);
+        return groups.get(first);
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("minLimit", minLimit);
+        stats.put("maxLimit", maxLimit);
+        stats.put("tolerance", tolerance);
+        for (Group group : groups.values()) {
+            stats.put(group.name, group.describe());
+        }
+        return stats;
+    }
+
+    public class Group {
+        private final String name;
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final AtomicBoolean updating = new AtomicBoolean();
+        private volatile double limit = initialLimit;
+
+        // Current sample window
+        private final LongAdder samples = new LongAdder();
+        private final LongAdder totalRttNanos = new LongAdder();
+        private final AtomicInteger maxInFlight = new AtomicInteger();
+        private volatile long windowStartedAt = System.nanoTime();
+
+        private volatile long minRttNanos;
+        private volatile long lastRttNanos;
+        private int windowsSinceMinRttReset;
+
+        private final LongAdder admitted = new LongAdder();
+        private final LongAdder[] shed = {new LongAdder(), new LongAdder(), new LongAdder()};
+
+        private Group(String name) {
+            this.name = name;
+        }
+
+        public void acquire(Priority priority) {
+            double share = priority == Priority.CRITICAL ? 1.0 : priority == Priority.NORMAL ? normalShare : lowShare;
+            int allowed = Math.max(1, (int) (limit * share));
+            while (true) {
+                int current = inFlight.get();
+                if (current >= allowed) {
+                    shed[priority.ordinal()].increment();
+                    throw new ServiceUnavailableException("Server is busy, please retry shortly");
+                }
+                if (inFlight.compareAndSet(current, current + 1)) {
+                    maxInFlight.accumulateAndGet(current + 1, Math::max);
+                    admitted.increment();
+                    return;
+                }
+            }
+        }
+
+        public void release(long rttNanos) {
+            inFlight.decrementAndGet();
+            samples.increment();
+            totalRttNanos.add(rttNanos);
+
+            long now = System.nanoTime();
+            if (now - windowStartedAt >= TimeUnit.MILLISECONDS.toNanos(windowMs)
+                    && updating.compareAndSet(false, true)) {
+                try {
+                    updateLimit(now);
+                } finally {
+                    updating.set(false);
+                }
+            }
+        }
+
+        private void updateLimit(long now) {
+            long count = samples.sumThenReset();
+            long total = totalRttNanos.sumThenReset();
+            int peak = maxInFlight.getAndSet(inFlight.get());
+            windowStartedAt = now;
+            if (count == 0) {
+                return;
+            }
+
+            long rtt = total / count;
+            lastRttNanos = rtt;
+            // Re-learn the baseline now and then in case the no-load latency itself changed
+            if (minRttNanos == 0 || rtt < minRttNanos || ++windowsSinceMinRttReset >= minRttResetWindows) {
+                minRttNanos = rtt;
+                windowsSinceMinRttReset = 0;
+            }
+
+            double gradient = Math.max(0.5, Math.min(1.0, tolerance * minRttNanos / rtt));
+            double current = limit;
+            double next = current * gradient + Math.sqrt(current);
+            // Do not grow a limit the traffic is not using
+            if (next > current && peak < current / 2) {
+                return;
+            }
+            next = current * 0.8 + next * 0.2;
+            limit = Math.max(minLimit, Math.min(maxLimit, next));
+        }
+
+        private Map<String, Object> describe() {
+            Map<String, Object> info = new LinkedHashMap<>();
+            info.put("limit", (int) limit);
+            info.put("inFlight", inFlight.get());
+            info.put("minRttMs", minRttNanos / 1_000_000.0);
+            info.put("lastRttMs", lastRttNanos / 1_000_000.0);
+            info.put("admitted", admitted.sum());
+            info.put("shedCritical", shed[Priority.CRITICAL.ordinal()].sum());
+            info.put("shedNormal", shed[Priority.NORMAL.ordinal()].sum());
+            info.put("shedLow", shed[Priority.LOW.ordinal()].sum());
+            return info;
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.ticketsystem.security;
+
+import java.util.UUID;
+
+/**
+ * Minimal Bloom filter over UUIDs, sized for a known number of entries, filled once and
+ * then only read. A negative answer is definite; a positive one has to be confirmed.
+ */
+class BloomFilter {
+
+    private final long[] bits;
+    private final int bitCount;
+    private final int hashCount;
+
+    BloomFilter(int expectedEntries, double falsePositiveRate) {
+        int n = Math.max(expectedEntries, 1);
+        long m = (long) Math.ceil(-n * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        this.bitCount = (int) Math.max(64, Math.min(m, Integer.MAX_VALUE - 63));
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / n * Math.log(2)));
+        this.bits = new long[(bitCount + 63) / 64];
+    }
+
+    void add(UUID id) {
+        long h1 = mix(id.getMostSignificantBits());
+        long h2 = mix(id.getLeastSignificantBits());
+        for (int i = 0; i < hashCount; i++) {
+            int index = index(h1 + i * h2);
+            bits[index >>> 6] |= 1L << index;
+        }
+    }
+
+    boolean mightContain(UUID id) {
+        long h1 = mix(id.getMostSignificantBits());
+        long h2 = mix(id.getLeastSignificantBits());
+        for (int i = 0; i < hashCount; i++) {
+            int index = index(h1 + i * h2);
+            if ((bits[index >>> 6] & (1L << index)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    int getBitCount() {
+        return bitCount;
+    }
+
+    // Helper methods
+    private int index(long hash) {
+        return (int) Math.floorMod(hash, (long) bitCount);
+    }
+
+    // SplitMix64 finalizer; random UUIDs are already spread but ids are not always random
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,129 @@
+package com.ticketsystem.security;
+
+import com.ticketsystem.exception.ServiceUnavailableException;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * BCrypt encoder that runs every hash on a small dedicated pool.
+ *
+ * At most one hash per pool thread runs at a time, so a burst of logins cannot take
+ * every request thread's CPU. Work beyond the queue, or waiting longer than the
+ * timeout, fails fast with {@link ServiceUnavailableException}.
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder, DisposableBean {
+
+    private final BCryptPasswordEncoder delegate;
+    private final int strength;
+    private final ThreadPoolExecutor executor;
+    private final long timeoutMs;
+
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong timedOut = new AtomicLong();
+    private final AtomicLong totalWaitNanos = new AtomicLong();
+    private final AtomicLong totalHashNanos = new AtomicLong();
+    private final AtomicLong maxLatencyNanos = new AtomicLong();
+
+    public BoundedPasswordEncoder(int strength, int threads, int queueCapacity, long timeoutMs) {
+        this.delegate = new BCryptPasswordEncoder(strength);
+        this.strength = strength;
+        this.timeoutMs = timeoutMs;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            runnable -> {
+                Thread thread = new Thread(runnable, "password-hash-" + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            },
+            new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return run(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return run(() -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    // True for hashes made with a lower cost than configured; they are rehashed on login
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    public Map<String, Object> getStats() {
+        long done = completed.get();
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("strength", strength);
+        stats.put("threads", executor.getMaximumPoolSize());
+        stats.put("activeHashes", executor.getActiveCount());
+        stats.put("queueDepth", executor.getQueue().size());
+        stats.put("queueCapacity", executor.getQueue().size() + executor.getQueue().remainingCapacity());
+        stats.put("completed", done);
+        stats.put("rejected", rejected.get());
+        stats.put("timedOut", timedOut.get());
+        stats.put("avgQueueWaitMs", done > 0 ? totalWaitNanos.get() / done / 1_000_000.0 : 0.0);
+        stats.put("avgHashMs", done > 0 ? totalHashNanos.get() / done / 1_000_000.0 : 0.0);
+        stats.put("maxLatencyMs", maxLatencyNanos.get() / 1_000_000.0);
+        return stats;
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    // Helper methods
+    private <T> T run(Supplier<T> hash) {
+        long submittedAt = System.nanoTime();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                long startedAt = System.nanoTime();
+                try {
+                    return hash.get();
+                } finally {
+                    long finishedAt = System.nanoTime();
+                    completed.incrementAndGet();
+                    totalWaitNanos.addAndGet(startedAt - submittedAt);
+                    totalHashNanos.addAndGet(finishedAt - startedAt);
+                    maxLatencyNanos.accumulateAndGet(finishedAt - submittedAt, Math::max);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.incrementAndGet();
+            throw new ServiceUnavailableException("Too many concurrent sign-ins, please retry shortly");
+        }
+
+        try {
+            return future.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            timedOut.incrementAndGet();
+            throw new ServiceUnavailableException("Too many concurrent sign-ins, please retry shortly");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            throw new ServiceUnavailableException("Interrupted while waiting for password check");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Password hashing failed", cause);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.ticketsystem.security;
+
+import com.ticketsystem.entity.User;
+import com.ticketsystem.security.AdaptiveConcurrencyLimiter.Group;
+import com.ticketsystem.security.AdaptiveConcurrencyLimiter.Priority;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpMethod;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+/**
+ * Admits or sheds each request against its endpoint group's adaptive limit and reports
+ * the request's latency back when it completes. An async request keeps its slot until the
+ * async dispatch finishes.
+ */
+@Component
+public class ConcurrencyLimitInterceptor implements AsyncHandlerInterceptor {
+
+    private static final String GROUP_ATTRIBUTE = ConcurrencyLimitInterceptor.class.getName() + ".group";
+    private static final String STARTED_AT_ATTRIBUTE = ConcurrencyLimitInterceptor.class.getName() + ".startedAt";
+
+    @Autowired
+    private AdaptiveConcurrencyLimiter limiter;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        // Already admitted on the initial dispatch
+        if (request.getDispatcherType() == DispatcherType.ASYNC || request.getAttribute(GROUP_ATTRIBUTE) != null) {
+            return true;
+        }
+
+        Group group = limiter.groupFor(request.getServletPath());
+        if (group == null) {
+            return true;
+        }
+        group.acquire(priorityOf(request));
+        request.setAttribute(GROUP_ATTRIBUTE, group);
+        request.setAttribute(STARTED_AT_ATTRIBUTE, System.nanoTime());
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        Object group = request.getAttribute(GROUP_ATTRIBUTE);
+        if (group != null) {
+            request.removeAttribute(GROUP_ATTRIBUTE);
+            ((Group) group).release(System.nanoTime() - (Long) request.getAttribute(STARTED_AT_ATTRIBUTE));
+        }
+    }
+
+    // Helper methods
+    private Priority priorityOf(HttpServletRequest request) {
+        String path = request.getServletPath();
+        boolean read = HttpMethod.GET.matches(request.getMethod());
+        if (path.startsWith("/admin")) {
+            return read ? Priority.LOW : Priority.NORMAL;
+        }
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        boolean agent = authentication != null && authentication.getPrincipal() instanceof User user
+            && user.getRole().hasSupportPrivileges();
+        return agent && !read ? Priority.CRITICAL : Priority.NORMAL;
+    }
+}
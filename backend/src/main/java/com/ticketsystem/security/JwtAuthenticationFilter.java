@@ -1,6 +1,9 @@
 package com.ticketsystem.security;
 
+import com.ticketsystem.entity.User;
+import com.ticketsystem.entity.UserRole;
 import com.ticketsystem.service.UserService;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -16,6 +19,7 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.UUID;
 
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
@@ -28,6 +32,12 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private UserPrincipalCache userPrincipalCache;
+
+    @Autowired
+    private TokenRevocationList tokenRevocationList;
+
     @Override
     protected void doFilterInternal(HttpServletRequest request, 
                                   HttpServletResponse response, 
@@ -37,20 +47,25 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         
         String username = null;
         String jwt = null;
+        Claims claims = null;
         
         if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
             jwt = authorizationHeader.substring(7);
             try {
-                username = jwtUtil.extractUsername(jwt);
+                // Signature and expiry are checked here, once per request
+                claims = jwtUtil.verify(jwt);
+                username = claims.getSubject();
             } catch (Exception e) {
                 logger.error("Error extracting username from JWT: {}", e.getMessage());
             }
         }
         
         if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = userService.loadUserByUsername(username);
+            UserDetails userDetails = tokenRevocationList.isEnabled() && claims.get("userId") != null
+                ? principalFromClaims(claims)
+                : userPrincipalCache.get(username, email -> (User) userService.loadUserByUsername(email));
             
-            if (jwtUtil.validateToken(jwt, userDetails)) {
+            if (userDetails != null && username.equals(userDetails.getUsername())) {
                 UsernamePasswordAuthenticationToken authToken = 
                     new UsernamePasswordAuthenticationToken(
                         userDetails, 
@@ -64,4 +79,30 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         
         filterChain.doFilter(request, response);
     }
+
+    // Stateless principal mode: trust the verified claims unless the user is on the denylist
+    private User principalFromClaims(Claims claims) {
+        UUID userId = UUID.fromString(claims.get("userId", String.class));
+        if (tokenRevocationList.isRevoked(userId, claims.getIssuedAt())) {
+            return null;
+        }
+
+        User principal = new User();
+        principal.setId(userId);
+        principal.setEmail(claims.getSubject());
+        principal.setRole(UserRole.valueOf(claims.get("role", String.class)));
+        String firstName = claims.get("firstName", String.class);
+        String lastName = claims.get("lastName", String.class);
+        if (firstName == null) {
+            // Tokens issued before the name claims only carry the full name
+            String fullName = claims.get("fullName", String.class);
+            int space = fullName != null ? fullName.indexOf(' ') : -1;
+            firstName = space >= 0 ? fullName.substring(0, space) : fullName;
+            lastName = space >= 0 ? fullName.substring(space + 1) : "";
+        }
+        principal.setFirstName(firstName);
+        principal.setLastName(lastName);
+        principal.setIsActive(true);
+        return principal;
+    }
 }
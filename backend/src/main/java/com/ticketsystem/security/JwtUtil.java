@@ -1,7 +1,12 @@
 package com.ticketsystem.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
@@ -9,11 +14,23 @@ import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
+/**
+ * Issues and verifies JWTs.
+ *
+ * The signing key and parser are built once. Verified claims are kept in a small cache
+ * keyed by a SHA-256 digest of the token and dropped when the token expires, so a token
+ * is parsed and its signature checked once rather than on every request.
+ */
 @Component
 public class JwtUtil {
 
@@ -25,8 +42,67 @@ public class JwtUtil {
     @Value("${jwt.expiration}")
     private Long expiration;
 
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes());
+    @Value("${jwt.verified-cache-size:10000}")
+    private long verifiedCacheSize;
+
+    private SecretKey signingKey;
+    private JwtParser parser;
+    private Cache<String, Claims> verifiedClaims;
+
+    @PostConstruct
+    void init() {
+        signingKey = Keys.hmacShaKeyFor(secret.getBytes());
+        parser = Jwts.parser().verifyWith(signingKey).build();
+        verifiedClaims = Caffeine.newBuilder()
+                .maximumSize(verifiedCacheSize)
+                .expireAfter(new Expiry<String, Claims>() {
+                    @Override
+                    public long expireAfterCreate(String key, Claims claims, long currentTime) {
+                        long millisLeft = claims.getExpiration().getTime() - System.currentTimeMillis();
+                        return TimeUnit.MILLISECONDS.toNanos(Math.max(millisLeft, 0));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, Claims claims, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, Claims claims, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Verifies the token and returns its claims, parsing it only on a cache miss.
+     * Throws {@link JwtException} when the token is malformed, forged or expired.
+     */
+    public Claims verify(String token) {
+        String digest = digest(token);
+        Claims claims = verifiedClaims.getIfPresent(digest);
+        if (claims != null && !isExpired(claims)) {
+            return claims;
+        }
+        claims = extractAllClaims(token);
+        if (claims.getExpiration() != null) {
+            verifiedClaims.put(digest, claims);
+        }
+        return claims;
+    }
+
+    public Map<String, Object> getCacheStats() {
+        CacheStats stats = verifiedClaims.stats();
+        Map<String, Object> result = new HashMap<>();
+        result.put("size", verifiedClaims.estimatedSize());
+        result.put("maxSize", verifiedCacheSize);
+        result.put("hitCount", stats.hitCount());
+        result.put("missCount", stats.missCount());
+        result.put("hitRate", stats.hitRate());
+        result.put("evictionCount", stats.evictionCount());
+        return result;
     }
 
     public String extractUsername(String token) {
@@ -38,25 +114,32 @@ public class JwtUtil {
     }
 
     public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
+        final Claims claims = verify(token);
         return claimsResolver.apply(claims);
     }
 
     private Claims extractAllClaims(String token) {
         try {
-            return Jwts.parser()
-                    .verifyWith(getSigningKey())
-                    .build()
-                    .parseSignedClaims(token)
-                    .getPayload();
+            return parser.parseSignedClaims(token).getPayload();
         } catch (JwtException e) {
             logger.error("Error parsing JWT token: {}", e.getMessage());
             throw e;
         }
     }
 
-    private Boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    private boolean isExpired(Claims claims) {
+        return claims.getExpiration() != null && claims.getExpiration().before(new Date());
+    }
+
+    // Keys the cache without holding on to bearer tokens
+    private String digest(String token) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            byte[] hash = sha256.digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
     }
 
     public String generateToken(UserDetails userDetails) {
@@ -78,14 +161,14 @@ public class JwtUtil {
                 .subject(subject)
                 .issuedAt(now)
                 .expiration(expiryDate)
-                .signWith(getSigningKey())
+                .signWith(signingKey)
                 .compact();
     }
 
     public Boolean validateToken(String token, UserDetails userDetails) {
         try {
-            final String username = extractUsername(token);
-            return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
+            final Claims claims = verify(token);
+            return claims.getSubject().equals(userDetails.getUsername()) && !isExpired(claims);
         } catch (JwtException e) {
             logger.error("JWT token validation failed: {}", e.getMessage());
             return false;
@@ -94,8 +177,7 @@ public class JwtUtil {
 
     public Boolean validateToken(String token) {
         try {
-            extractAllClaims(token);
-            return !isTokenExpired(token);
+            return !isExpired(verify(token));
         } catch (JwtException e) {
             logger.error("JWT token validation failed: {}", e.getMessage());
             return false;
@@ -0,0 +1,40 @@
+package com.ticketsystem.security;
+
+import com.ticketsystem.entity.User;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Applies the per-address limit to /auth and the per-user limit to everything else.
+ * Runs as an MVC interceptor so a rejection is rendered by the global exception handler.
+ */
+@Component
+public class RateLimitInterceptor implements HandlerInterceptor {
+
+    @Autowired
+    private RateLimiter rateLimiter;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        // Counted once, on the initial dispatch
+        if (request.getDispatcherType() == DispatcherType.ASYNC) {
+            return true;
+        }
+        if (request.getServletPath().startsWith("/auth/")) {
+            rateLimiter.acquireForClient(request.getRemoteAddr());
+            return true;
+        }
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof User user) {
+            rateLimiter.acquireForUser(user.getId());
+        }
+        return true;
+    }
+}
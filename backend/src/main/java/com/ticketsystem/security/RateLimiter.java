@@ -0,0 +1,172 @@
+package com.ticketsystem.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.ticketsystem.exception.RateLimitExceededException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-memory token buckets for sign-in attempts and per-user API traffic.
+ *
+ * Each bucket is a single {@link AtomicLong} holding the time at which it will be full
+ * again (GCRA), updated with a CAS loop, so the hot path takes no lock. A bucket that
+ * has not been touched for its refill time is full by definition, so expiring it changes
+ * nothing. Limits are per node.
+ *
+ * Buckets live in two bounded caches. When one is full, size eviction can drop a bucket
+ * that is still draining, which resets that client's limit. Per-user buckets are only
+ * created for authenticated requests and have their own cache, so anonymous traffic
+ * spraying addresses or emails can only reset other anonymous buckets.
+ */
+@Component
+public class RateLimiter {
+
+    @Value("${rate-limit.enabled:true}")
+    private boolean enabled;
+
+    @Value("${rate-limit.max-anonymous-keys:100000}")
+    private long maxAnonymousKeys;
+
+    @Value("${rate-limit.max-user-keys:100000}")
+    private long maxUserKeys;
+
+    @Value("${rate-limit.credentials.capacity:10}")
+    private int credentialsCapacity;
+
+    @Value("${rate-limit.credentials.per-minute:5}")
+    private int credentialsPerMinute;
+
+    @Value("${rate-limit.client.capacity:60}")
+    private int clientCapacity;
+
+    @Value("${rate-limit.client.per-minute:60}")
+    private int clientPerMinute;
+
+    @Value("${rate-limit.user.capacity:200}")
+    private int userCapacity;
+
+    @Value("${rate-limit.user.per-minute:600}")
+    private int userPerMinute;
+
+    // Keeps bucket times non-negative, so a new bucket (0) always starts full
+    private final long origin = System.nanoTime();
+
+    private Cache<String, AtomicLong> anonymousBuckets;
+    private Cache<String, AtomicLong> userBuckets;
+    private Limit credentials;
+    private Limit client;
+    private Limit user;
+
+    @PostConstruct
+    void init() {
+        credentials = new Limit("credentials", credentialsCapacity, credentialsPerMinute);
+        client = new Limit("client", clientCapacity, clientPerMinute);
+        user = new Limit("user", userCapacity, userPerMinute);
+        anonymousBuckets = newBuckets(maxAnonymousKeys,
+            Math.max(credentials.fullAfterNanos(), client.fullAfterNanos()));
+        userBuckets = newBuckets(maxUserKeys, user.fullAfterNanos());
+    }
+
+    // Sign-in and registration attempts for one email from one address
+    public void acquireForCredentials(String clientIp, String email) {
+        String normalized = email != null ? email.trim().toLowerCase(Locale.ROOT) : "";
+        acquire(anonymousBuckets, credentials, clientIp + "|" + normalized);
+    }
+
+    // Every /auth request from one address
+    public void acquireForClient(String clientIp) {
+        acquire(anonymousBuckets, client, clientIp);
+    }
+
+    public void acquireForUser(UUID userId) {
+        acquire(userBuckets, user, userId.toString());
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("anonymousKeys", anonymousBuckets.estimatedSize());
+        stats.put("maxAnonymousKeys", maxAnonymousKeys);
+        stats.put("userKeys", userBuckets.estimatedSize());
+        stats.put("maxUserKeys", maxUserKeys);
+        stats.put("credentials", credentials.describe());
+        stats.put("client", client.describe());
+        stats.put("user", user.describe());
+        return stats;
+    }
+
+    // Helper methods
+    private static Cache<String, AtomicLong> newBuckets(long maxKeys, long idleNanos) {
+        return Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterAccess(Duration.ofNanos(idleNanos))
+                .build();
+    }
+
+    private void acquire(Cache<String, AtomicLong> buckets, Limit limit, String key) {
+        if (!enabled) {
+            return;
+        }
+        AtomicLong bucket = buckets.get(limit.name + ":" + key, k -> new AtomicLong());
+        long now = System.nanoTime() - origin;
+        while (true) {
+            long fullAt = bucket.get();
+            long next = Math.max(fullAt, now) + limit.intervalNanos;
+            long overNanos = next - now - limit.burstNanos;
+            if (overNanos > 0) {
+                limit.rejected.increment();
+                long retryAfter = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(overNanos + 999_999_999L));
+                throw new RateLimitExceededException("Too many requests, please retry later", retryAfter);
+            }
+            if (bucket.compareAndSet(fullAt, next)) {
+                limit.allowed.increment();
+                return;
+            }
+        }
+    }
+
+    private static class Limit {
+        final String name;
+        final int capacity;
+        final int perMinute;
+        final long intervalNanos;
+        final long burstNanos;
+        final LongAdder allowed = new LongAdder();
+        final LongAdder rejected = new LongAdder();
+
+        Limit(String name, int capacity, int perMinute) {
+            if (capacity < 1 || perMinute < 1) {
+                throw new IllegalArgumentException("Rate limit " + name + " needs a positive capacity and rate");
+            }
+            this.name = name;
+            this.capacity = capacity;
+            this.perMinute = perMinute;
+            this.intervalNanos = TimeUnit.MINUTES.toNanos(1) / perMinute;
+            this.burstNanos = intervalNanos * capacity;
+        }
+
+        long fullAfterNanos() {
+            return burstNanos;
+        }
+
+        Map<String, Object> describe() {
+            Map<String, Object> info = new HashMap<>();
+            info.put("capacity", capacity);
+            info.put("perMinute", perMinute);
+            info.put("allowed", allowed.sum());
+            info.put("rejected", rejected.sum());
+            return info;
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package com.ticketsystem.security;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * In-memory denylist for stateless principal mode: inactive users, and users whose
+ * tokens issued before a password, role or email change must no longer be accepted.
+ *
+ * The list is rebuilt from {@code users} on a fixed interval and swapped in whole. A
+ * Bloom filter answers the common "not listed" case; hits are confirmed against the
+ * exact map. Changes made on this node apply at once, other nodes pick them up within
+ * one sync interval.
+ */
+@Component
+public class TokenRevocationList {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenRevocationList.class);
+
+    // Marks a user whose every token is rejected
+    private static final long INACTIVE = Long.MAX_VALUE;
+
+    private static final String SYNC_SQL =
+        "SELECT id, is_active, tokens_valid_after FROM users " +
+        "WHERE is_active = false OR tokens_valid_after > ? " +
+        "UNION ALL SELECT user_id, false, revoked_at FROM deleted_user_revocations";
+
+    @Value("${security.stateless-principal.enabled:false}")
+    private boolean enabled;
+
+    @Value("${security.revocation.false-positive-rate:0.01}")
+    private double falsePositiveRate;
+
+    @Value("${jwt.expiration}")
+    private long tokenLifetimeMs;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>();
+    private final AtomicLong checks = new AtomicLong();
+    private final AtomicLong filterHits = new AtomicLong();
+    private final AtomicLong rejections = new AtomicLong();
+    private volatile LocalDateTime lastSyncAt;
+
+    public TokenRevocationList() {
+        snapshot.set(new Snapshot(new HashMap<>(), 0.5));
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        sync();
+    }
+
+    @Scheduled(fixedDelayString = "${security.revocation.sync-interval-ms:5000}")
+    public void sync() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            // Older changes can only affect tokens that have expired anyway
+            Timestamp horizon = new Timestamp(System.currentTimeMillis() - tokenLifetimeMs);
+            Map<UUID, Long> entries = new HashMap<>();
+            jdbcTemplate.query(SYNC_SQL, rs -> {
+                Timestamp validAfter = rs.getTimestamp("tokens_valid_after");
+                entries.put(rs.getObject("id", UUID.class), !rs.getBoolean("is_active")
+                    ? INACTIVE : validAfter.getTime());
+            }, horizon);
+            jdbcTemplate.update("DELETE FROM deleted_user_revocations WHERE revoked_at < ?", horizon);
+            snapshot.set(new Snapshot(entries, falsePositiveRate));
+            lastSyncAt = LocalDateTime.now();
+        } catch (DataAccessException e) {
+            logger.error("Token revocation sync failed, keeping previous list: {}", e.getMessage());
+        }
+    }
+
+    public boolean isRevoked(UUID userId, Date issuedAt) {
+        checks.incrementAndGet();
+        Snapshot current = snapshot.get();
+        if (!current.filter.mightContain(userId)) {
+            return false;
+        }
+        filterHits.incrementAndGet();
+        Long validAfter = current.entries.get(userId);
+        if (validAfter == null) {
+            return false;
+        }
+        // iat has second precision; compare on whole seconds
+        boolean revoked = validAfter == INACTIVE || issuedAt == null
+            || issuedAt.getTime() < validAfter / 1000 * 1000;
+        if (revoked) {
+            rejections.incrementAndGet();
+        }
+        return revoked;
+    }
+
+    /**
+     * Applies a user's current revocation state on this node once the surrounding
+     * transaction commits.
+     */
+    public void update(UUID userId, boolean active, LocalDateTime tokensValidAfter) {
+        if (!enabled) {
+            return;
+        }
+        Long validAfter = !active ? Long.valueOf(INACTIVE)
+            : tokensValidAfter != null ? Long.valueOf(Timestamp.valueOf(tokensValidAfter).getTime()) : null;
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(userId, validAfter);
+                }
+            });
+        } else {
+            apply(userId, validAfter);
+        }
+    }
+
+    // Joins the caller's transaction so the revocation commits with the delete
+    public void recordDeletedUser(UUID userId) {
+        Timestamp horizon = new Timestamp(System.currentTimeMillis() - tokenLifetimeMs);
+        jdbcTemplate.update("DELETE FROM deleted_user_revocations WHERE revoked_at < ?", horizon);
+        jdbcTemplate.update("INSERT INTO deleted_user_revocations (user_id) VALUES (?) ON CONFLICT DO NOTHING", userId);
+        update(userId, false, null);
+    }
+
+    public Map<String, Object> getStats() {
+        Snapshot current = snapshot.get();
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("entries", current.entries.size());
+        stats.put("bloomFilterBits", current.filter.getBitCount());
+        stats.put("checks", checks.get());
+        stats.put("bloomFilterHits", filterHits.get());
+        stats.put("rejections", rejections.get());
+        stats.put("lastSyncAt", lastSyncAt);
+        return stats;
+    }
+
+    // Helper methods
+    private void apply(UUID userId, Long validAfter) {
+        snapshot.updateAndGet(current -> {
+            Map<UUID, Long> entries = new HashMap<>(current.entries);
+            if (validAfter != null) {
+                entries.put(userId, validAfter);
+            } else {
+                entries.remove(userId);
+            }
+            return new Snapshot(entries, falsePositiveRate);
+        });
+    }
+
+    private static final class Snapshot {
+        private final Map<UUID, Long> entries;
+        private final BloomFilter filter;
+
+        private Snapshot(Map<UUID, Long> entries, double falsePositiveRate) {
+            this.entries = entries;
+            this.filter = new BloomFilter(entries.size(), falsePositiveRate);
+            entries.keySet().forEach(filter::add);
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.ticketsystem.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.ticketsystem.entity.User;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import jakarta.annotation.PostConstruct;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Function;
+
+/**
+ * Bounded cache of authenticated principals keyed by email, so a request with a valid
+ * token does not have to load its user from the database.
+ *
+ * {@code UserService} evicts an entry whenever it changes the user. Eviction is repeated
+ * when the transaction completes so a request racing the update cannot put the old row back.
+ * Loads run outside the cache, so each eviction also bumps a generation counter for the
+ * email's stripe, and a load that overlapped an eviction removes what it stored. The TTL
+ * bounds how long another node may keep serving a stale principal.
+ */
+@Component
+public class UserPrincipalCache {
+
+    @Value("${security.principal-cache.max-size:10000}")
+    private long maxSize;
+
+    @Value("${security.principal-cache.ttl-seconds:60}")
+    private long ttlSeconds;
+
+    private static final int GENERATION_STRIPES = 64;
+
+    private Cache<String, User> cache;
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+
+    @PostConstruct
+    void init() {
+        cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+    }
+
+    // Loaded outside the cache's compute lock: a JDBC call inside it would pin a virtual thread
+    public User get(String email, Function<String, User> loader) {
+        User user = cache.getIfPresent(email);
+        if (user == null) {
+            int stripe = stripe(email);
+            long generation = generations.get(stripe);
+            user = loader.apply(email);
+            cache.put(email, user);
+            // An eviction since the load may have missed this entry, which can be stale
+            if (generations.get(stripe) != generation) {
+                cache.invalidate(email);
+            }
+        }
+        return user;
+    }
+
+    public void evict(String email) {
+        if (email == null) {
+            return;
+        }
+        invalidate(email);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    invalidate(email);
+                }
+            });
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        CacheStats stats = cache.stats();
+        Map<String, Object> result = new HashMap<>();
+        result.put("size", cache.estimatedSize());
+        result.put("maxSize", maxSize);
+        result.put("ttlSeconds", ttlSeconds);
+        result.put("hitCount", stats.hitCount());
+        result.put("missCount", stats.missCount());
+        result.put("hitRate", stats.hitRate());
+        result.put("loadFailureCount", stats.loadFailureCount());
+        result.put("evictionCount", stats.evictionCount());
+        return result;
+    }
+
+    // Helper methods
+    private void invalidate(String email) {
+        generations.incrementAndGet(stripe(email));
+        cache.invalidate(email);
+    }
+
+    private static int stripe(String email) {
+        return (email.hashCode() & Integer.MAX_VALUE) % GENERATION_STRIPES;
+    }
+}
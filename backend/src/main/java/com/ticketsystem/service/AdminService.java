@@ -1,5 +1,6 @@
 package com.ticketsystem.service;
 
+import com.ticketsystem.aspect.SingleFlight;
 import com.ticketsystem.dto.CreateUserRequest;
 import com.ticketsystem.dto.SystemStatsDto;
 import com.ticketsystem.dto.UpdateUserRequest;
@@ -47,6 +48,9 @@ public class AdminService {
     @Autowired
     private TicketRatingRepository ticketRatingRepository;
 
+    @Autowired
+    private StorageUsageService storageUsageService;
+
     // User Management
     public User createUser(CreateUserRequest request) {
         return userService.createUser(
@@ -103,6 +107,7 @@ public class AdminService {
     }
 
     // System Statistics
+    @SingleFlight(ttlMs = 5000)
     public SystemStatsDto getSystemStats() {
         SystemStatsDto stats = new SystemStatsDto();
         
@@ -208,7 +213,7 @@ public class AdminService {
     }
 
     private Long getTicketsCreatedSince(LocalDateTime since) {
-        return ticketRepository.findRecentTickets(since).size();
+        return (long) ticketRepository.findRecentTickets(since).size();
     }
 
     private Double getCustomerSatisfactionRate() {
@@ -216,8 +221,7 @@ public class AdminService {
     }
 
     private Long getTotalStorageUsedMB() {
-        Long totalBytes = attachmentRepository.getTotalStorageUsed();
-        return totalBytes != null ? totalBytes / (1024 * 1024) : 0L;
+        return storageUsageService.getTotalBytes() / (1024 * 1024);
     }
 
     private LocalDateTime getLastTicketCreatedTime() {
@@ -0,0 +1,350 @@
+package com.ticketsystem.service;
+
+import com.ticketsystem.entity.Attachment;
+import com.ticketsystem.entity.Ticket;
+import com.ticketsystem.entity.User;
+import com.ticketsystem.exception.ResourceNotFoundException;
+import com.ticketsystem.exception.UnauthorizedOperationException;
+import com.ticketsystem.repository.AttachmentRepository;
+import com.ticketsystem.repository.TicketRepository;
+import com.ticketsystem.repository.UserRepository;
+import com.ticketsystem.service.AttachmentStorage.Digest;
+import com.ticketsystem.service.AttachmentStorage.StagedFile;
+import com.ticketsystem.service.BlobStore.StoredBlob;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.annotation.PostConstruct;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Attachment uploads, listings and deletes.
+ *
+ * Not transactional as a whole: an upload checks access in one short transaction,
+ * streams the body to a temp file with no connection held, and records the row in a
+ * second one. Bytes are kept in the {@link BlobStore}, once per distinct content.
+ * Attachment paths are left out of open-in-view (see WebConfig), so mappers run inside
+ * the service's transactions.
+ */
+@Service
+public class AttachmentService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AttachmentService.class);
+
+    private static final int MAX_FILE_NAME_LENGTH = 255;
+    private static final int MAX_MIME_TYPE_LENGTH = 100;
+    private static final String DEFAULT_MIME_TYPE = "application/octet-stream";
+
+    @Value("${file.upload.max-size:10485760}")
+    private long maxFileSize;
+
+    @Value("${file.upload.zip.level:1}")
+    private int zipLevel;
+
+    @Autowired
+    private AttachmentRepository attachmentRepository;
+
+    @Autowired
+    private TicketRepository ticketRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TicketService ticketService;
+
+    @Autowired
+    private TicketArchiveService ticketArchiveService;
+
+    @Autowired
+    private AttachmentStorage attachmentStorage;
+
+    @Autowired
+    private BlobStore blobStore;
+
+    @Autowired
+    private ThumbnailService thumbnailService;
+
+    @Autowired
+    private AttachmentTextIndex attachmentTextIndex;
+
+    @Autowired
+    private StorageUsageService storageUsageService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+    private TransactionTemplate readOnlyTransaction;
+
+    @PostConstruct
+    void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+    }
+
+    /**
+     * Streams a new attachment into the blob store. When the client declares the SHA-256 of
+     * content that is already stored, the body is only hashed to prove it matches and no
+     * bytes are written. The mapper runs inside the insert transaction so lazy associations
+     * can be read.
+     */
+    public <T> T upload(UUID ticketId, User user, String originalFileName, String mimeType, String declaredSha256,
+                        long contentLength, InputStream content, Function<Attachment, T> mapper) throws IOException {
+        checkCanAttach(ticketId, user);
+        if (contentLength > maxFileSize) {
+            throw new IllegalArgumentException("File exceeds the maximum size of " + maxFileSize + " bytes");
+        }
+        storageUsageService.checkQuota(user.getId(), ticketId, contentLength);
+
+        String declared = declaredSha256 != null ? declaredSha256.trim().toLowerCase() : null;
+        if (declared != null && blobStore.contains(declared)) {
+            Digest digest = attachmentStorage.digest(content, maxFileSize);
+            if (!digest.sha256().equals(declared)) {
+                throw new IllegalArgumentException("Uploaded content does not match the declared SHA-256");
+            }
+            return recordAttachment(ticketId, user, originalFileName, mimeType, digest.size(), digest.sha256(), null,
+                null, mapper);
+        }
+
+        StagedFile staged = attachmentStorage.stage(content, maxFileSize,
+            attachmentStorage.isCompressible(normalizeMimeType(mimeType)));
+        try {
+            return recordAttachment(ticketId, user, originalFileName, mimeType, staged.size(), staged.sha256(),
+                staged, null, mapper);
+        } finally {
+            // Still there if the content was already stored or the insert failed
+            attachmentStorage.delete(staged.path());
+        }
+    }
+
+    /**
+     * Records a file that was assembled elsewhere, such as a chunked upload, as an attachment.
+     * {@code claim} runs first in the insert transaction. The caller still owns the staged
+     * file if it is not moved into the blob store.
+     */
+    public <T> T attachStagedFile(UUID ticketId, User user, String originalFileName, String mimeType,
+                                  StagedFile staged, Runnable claim, Function<Attachment, T> mapper) {
+        checkCanAttach(ticketId, user);
+        return recordAttachment(ticketId, user, originalFileName, mimeType, staged.size(), staged.sha256(),
+            staged, claim, mapper);
+    }
+
+    public void checkCanAttach(UUID ticketId, User user) {
+        readOnlyTransaction.executeWithoutResult(status -> {
+            Ticket ticket = ticketService.getTicketByIdWithAccess(ticketId, user);
+            if (ticket.isArchived()) {
+                throw new IllegalStateException("Ticket " + ticketId + " is archived and read-only");
+            }
+        });
+    }
+
+    public <T> List<T> getAttachmentsForTicket(UUID ticketId, User user, Function<Attachment, T> mapper) {
+        return readOnlyTransaction.execute(status -> {
+            Ticket ticket = ticketService.getTicketByIdWithAccess(ticketId, user);
+            List<Attachment> attachments = ticket.isArchived()
+                ? ticket.getAttachments()
+                : attachmentRepository.findByTicketOrderByCreatedAtDesc(ticket);
+            return attachments.stream().map(mapper).toList();
+        });
+    }
+
+    public <T> T getAttachmentWithAccess(UUID id, User user, Function<Attachment, T> mapper) {
+        return readOnlyTransaction.execute(status -> {
+            Attachment attachment = getAttachmentById(id);
+            if (!attachment.canBeDownloadedBy(user)) {
+                throw new UnauthorizedOperationException("You don't have permission to access this attachment");
+            }
+            return mapper.apply(attachment);
+        });
+    }
+
+    public AttachmentContent getContent(UUID id, User user) {
+        return getAttachmentWithAccess(id, user, this::toContent);
+    }
+
+    public List<AttachmentContent> getContentsForTicket(UUID ticketId, User user) {
+        return getAttachmentsForTicket(ticketId, user, this::toContent);
+    }
+
+    /**
+     * Writes the attachments as a ZIP to {@code out}, one file at a time through a fixed
+     * buffer. Precompressed formats are written at level 0: a stored entry would need its
+     * CRC before the data, which means reading the file twice.
+     */
+    public void writeZip(List<AttachmentContent> contents, OutputStream out) throws IOException {
+        ZipOutputStream zip = new ZipOutputStream(out, StandardCharsets.UTF_8);
+        Set<String> names = new HashSet<>();
+        for (AttachmentContent content : contents) {
+            zip.setLevel(attachmentStorage.isPrecompressed(content.mimeType()) ? Deflater.NO_COMPRESSION : zipLevel);
+            try (InputStream in = openDecoded(content)) {
+                zip.putNextEntry(new ZipEntry(uniqueName(content.originalFileName(), names)));
+                in.transferTo(zip);
+                zip.closeEntry();
+            } catch (NoSuchFileException e) {
+                logger.warn("Skipping attachment file {} missing from the ZIP", content.path());
+            }
+        }
+        zip.finish();
+    }
+
+    public InputStream openDecoded(AttachmentContent content) throws IOException {
+        return attachmentStorage.openContent(content.path(), content.contentEncoding());
+    }
+
+    // Empty when the attachment is not an image, predates content hashing or cannot be decoded
+    public Optional<ThumbnailContent> getThumbnail(UUID id, User user) {
+        AttachmentContent content = getContent(id, user);
+        if (!ThumbnailService.supports(content.mimeType()) || content.contentHash() == null) {
+            return Optional.empty();
+        }
+        return thumbnailService.getThumbnail(content.contentHash())
+            .map(path -> new ThumbnailContent(path, content.contentHash()));
+    }
+
+    public void deleteAttachment(UUID id, User user) {
+        transactionTemplate.executeWithoutResult(status -> {
+            Attachment attachment = getAttachmentById(id);
+            if (attachment.getTicket().isArchived()) {
+                throw new IllegalStateException("Ticket " + attachment.getTicket().getId() + " is archived and read-only");
+            }
+            if (!attachment.canBeDeletedBy(user)) {
+                throw new UnauthorizedOperationException("You don't have permission to delete this attachment");
+            }
+            attachmentRepository.delete(attachment);
+            storageUsageService.releaseAfterCommit(attachment.getUploadedBy().getId(), attachment.getTicket().getId(),
+                attachment.getFileSize());
+            if (BlobStore.isBlobPath(attachment.getFilePath())) {
+                blobStore.releaseAfterCommit(attachment.getContentHash());
+            } else {
+                deleteFileAfterCommit(attachment.getFilePath());
+            }
+            logger.info("Deleted attachment {} by user {}", id, user.getEmail());
+        });
+    }
+
+    // Helper methods
+    private AttachmentContent toContent(Attachment attachment) {
+        return new AttachmentContent(attachmentStorage.resolve(attachment.getFilePath()), attachment.getFileSize(),
+            attachment.getMimeType(), attachment.getOriginalFileName(), attachment.getContentHash(),
+            attachment.getContentEncoding());
+    }
+
+    // ZIP entries must be unique; later copies become "name (2).ext"
+    private static String uniqueName(String fileName, Set<String> used) {
+        String name = fileName;
+        int dot = fileName.lastIndexOf('.');
+        String base = dot > 0 ? fileName.substring(0, dot) : fileName;
+        String extension = dot > 0 ? fileName.substring(dot) : "";
+        for (int i = 2; !used.add(name); i++) {
+            name = base + " (" + i + ")" + extension;
+        }
+        return name;
+    }
+
+    // Attachments of archived tickets are listed with the ticket, so they resolve here too
+    private Attachment getAttachmentById(UUID id) {
+        return attachmentRepository.findById(id)
+                .or(() -> ticketArchiveService.findArchivedAttachment(id))
+                .orElseThrow(() -> new ResourceNotFoundException("Attachment not found with id: " + id));
+    }
+
+    private <T> T recordAttachment(UUID ticketId, User user, String originalFileName, String mimeType,
+                                   long size, String sha256, StagedFile staged, Runnable claim,
+                                   Function<Attachment, T> mapper) {
+        return transactionTemplate.execute(status -> {
+            if (claim != null) {
+                claim.run();
+            }
+            StoredBlob blob = blobStore.reference(sha256, size, staged);
+            Attachment attachment = new Attachment(sha256, sanitizeFileName(originalFileName), size,
+                normalizeMimeType(mimeType), blob.path(),
+                ticketRepository.getReferenceById(ticketId), userRepository.getReferenceById(user.getId()));
+            attachment.setContentHash(sha256);
+            attachment.setContentEncoding(blob.encoding());
+            attachment = attachmentRepository.saveAndFlush(attachment);
+            storageUsageService.enforceQuotaAndRecord(user.getId(), ticketId, size);
+            if (ThumbnailService.supports(attachment.getMimeType())) {
+                runAfterCommit(() -> thumbnailService.generateAsync(sha256));
+            }
+            if (attachmentTextIndex.supports(attachment.getMimeType())) {
+                String encoding = blob.encoding();
+                runAfterCommit(() -> attachmentTextIndex.indexAsync(sha256, encoding));
+            }
+
+            logger.info("Stored attachment {} ({} bytes) on ticket {} for user {}",
+                attachment.getId(), size, ticketId, user.getEmail());
+            return mapper.apply(attachment);
+        });
+    }
+
+    private void runAfterCommit(Runnable task) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                task.run();
+            }
+        });
+    }
+
+    private void deleteFileAfterCommit(String relativePath) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                attachmentStorage.delete(relativePath);
+            }
+        });
+    }
+
+    static String sanitizeFileName(String fileName) {
+        if (fileName == null || fileName.isBlank()) {
+            return "attachment";
+        }
+        // Keep only the last path segment and drop control characters
+        String name = fileName.substring(Math.max(fileName.lastIndexOf('/'), fileName.lastIndexOf('\\')) + 1)
+            .replaceAll("\\p{Cntrl}", "").trim();
+        if (name.isEmpty()) {
+            return "attachment";
+        }
+        return name.length() > MAX_FILE_NAME_LENGTH ? name.substring(name.length() - MAX_FILE_NAME_LENGTH) : name;
+    }
+
+    static String normalizeMimeType(String mimeType) {
+        if (mimeType == null || mimeType.isBlank()) {
+            return DEFAULT_MIME_TYPE;
+        }
+        // Parameters such as charset are not stored
+        String type = mimeType.split(";", 2)[0].trim().toLowerCase();
+        return type.isEmpty() || type.length() > MAX_MIME_TYPE_LENGTH ? DEFAULT_MIME_TYPE : type;
+    }
+
+    // size is of the original content; the file at path may be encoded
+    public record AttachmentContent(Path path, long size, String mimeType, String originalFileName, String contentHash,
+                                    String contentEncoding) {
+    }
+
+    public record ThumbnailContent(Path path, String contentHash) {
+    }
+}
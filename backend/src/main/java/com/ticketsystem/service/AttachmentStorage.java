@@ -0,0 +1,275 @@
+package com.ticketsystem.service;
+
+import com.ticketsystem.exception.ServiceUnavailableException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * File operations under {@code file.upload.dir}.
+ *
+ * An upload is copied through one small buffer into a temp file while its size and
+ * SHA-256 are computed, so memory use does not depend on file size. Files only become
+ * visible under their final path through an atomic move. Paths recorded on attachments
+ * are relative to the upload directory.
+ *
+ * Text-like content is gzip-encoded as it is staged. The hash and size still describe
+ * the original bytes, and the gzip stream can be sent as-is to clients that accept it.
+ */
+@Component
+public class AttachmentStorage {
+
+    private static final Logger logger = LoggerFactory.getLogger(AttachmentStorage.class);
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final String TEMP_DIR = "tmp";
+
+    public static final String GZIP = "gzip";
+
+    @Value("${file.upload.dir:./uploads}")
+    private String uploadDir;
+
+    @Value("${file.upload.compression.enabled:true}")
+    private boolean compressionEnabled;
+
+    @Value("${file.upload.compression.level:1}")
+    private int compressionLevel;
+
+    @Value("${file.upload.compression.mime-types:text/*,application/json,application/xml,application/javascript,"
+        + "application/x-ndjson,application/yaml,application/x-yaml,application/sql,application/csv,image/svg+xml}")
+    private List<String> compressibleMimeTypes;
+
+    // Formats that are compressed already; deflating them again only costs CPU
+    @Value("${file.upload.compression.precompressed-mime-types:image/jpeg,image/png,image/gif,image/webp,video/*,audio/*,"
+        + "application/zip,application/gzip,application/x-gzip,application/x-7z-compressed,application/x-rar-compressed,"
+        + "application/x-bzip2,application/x-xz,application/zstd,application/pdf,application/vnd.openxmlformats-officedocument.*}")
+    private List<String> precompressedMimeTypes;
+
+    private Path root;
+    private Path tempDir;
+
+    @PostConstruct
+    void init() throws IOException {
+        root = Paths.get(uploadDir).toAbsolutePath().normalize();
+        tempDir = root.resolve(TEMP_DIR);
+        Files.createDirectories(tempDir);
+    }
+
+    public boolean isCompressible(String mimeType) {
+        return compressionEnabled && matchesAny(mimeType, compressibleMimeTypes);
+    }
+
+    public boolean isPrecompressed(String mimeType) {
+        return matchesAny(mimeType, precompressedMimeTypes);
+    }
+
+    // The caller moves the temp file into place or deletes it
+    public StagedFile stage(InputStream content, long maxBytes, boolean compress) throws IOException {
+        Path temp = Files.createTempFile(tempDir, "upload-", ".part");
+        try (FileChannel file = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+            if (!compress) {
+                Digest digest = copy(content, maxBytes, file);
+                file.force(false);
+                return new StagedFile(temp, digest.size(), digest.sha256(), null, digest.size());
+            }
+            // Closing the gzip stream releases its native deflater; it closes the channel too
+            try (GzipStream gzip = new GzipStream(Channels.newOutputStream(file), compressionLevel)) {
+                Digest digest = copy(content, maxBytes, Channels.newChannel(gzip));
+                gzip.finish();
+                file.force(false);
+                return new StagedFile(temp, digest.size(), digest.sha256(), GZIP, file.size());
+            }
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+    }
+
+    // Original bytes of a stored file, decoded as they are read
+    public InputStream openContent(Path path, String encoding) throws IOException {
+        InputStream in = Files.newInputStream(path);
+        return GZIP.equals(encoding) ? new GZIPInputStream(in, BUFFER_SIZE) : in;
+    }
+
+    // Reads and hashes the content without writing it anywhere
+    public Digest digest(InputStream content, long maxBytes) throws IOException {
+        return copy(content, maxBytes, null);
+    }
+
+    // Sized up front so later chunks land at their final offsets; sparse where the file system allows
+    public Path preallocate(String relativePath, long size) throws IOException {
+        Path path = resolve(relativePath);
+        Files.createDirectories(path.getParent());
+        if (Files.getFileStore(path.getParent()).getUsableSpace() < size) {
+            throw new ServiceUnavailableException("Not enough storage space for this upload");
+        }
+        try (RandomAccessFile file = new RandomAccessFile(path.toFile(), "rw")) {
+            file.setLength(size);
+        }
+        return path;
+    }
+
+    /**
+     * Writes content into an existing file from {@code position} with positional writes,
+     * feeding the same bytes to {@code digest}. Returns the number of bytes written.
+     */
+    public long writeAt(Path path, long position, InputStream content, long maxBytes,
+                        MessageDigest digest) throws IOException {
+        long written = 0;
+        ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        try (FileChannel out = FileChannel.open(path, StandardOpenOption.WRITE);
+             ReadableByteChannel in = Channels.newChannel(content)) {
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                if (written + read > maxBytes) {
+                    throw new IllegalArgumentException("Chunk exceeds the maximum of " + maxBytes + " bytes");
+                }
+                digest.update(buffer.array(), 0, buffer.position());
+                buffer.flip();
+                while (buffer.hasRemaining()) {
+                    written += out.write(buffer, position + written);
+                }
+                buffer.clear();
+            }
+            out.force(false);
+        }
+        return written;
+    }
+
+    // Feeds the first length bytes of a file to digest
+    public void hashPrefix(Path path, long length, MessageDigest digest) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        try (FileChannel in = FileChannel.open(path, StandardOpenOption.READ)) {
+            long position = 0;
+            while (position < length) {
+                buffer.limit((int) Math.min(BUFFER_SIZE, length - position));
+                int read = in.read(buffer, position);
+                if (read == -1) {
+                    throw new IOException("File " + path + " is shorter than " + length + " bytes");
+                }
+                digest.update(buffer.array(), 0, buffer.position());
+                position += read;
+                buffer.clear();
+            }
+        }
+    }
+
+    public void moveIntoPlace(Path source, String relativePath) throws IOException {
+        Path target = resolve(relativePath);
+        Files.createDirectories(target.getParent());
+        Files.move(source, target, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    public Path getRoot() {
+        return root;
+    }
+
+    public boolean exists(String relativePath) {
+        return Files.exists(resolve(relativePath));
+    }
+
+    public Path resolve(String relativePath) {
+        Path path = root.resolve(relativePath).normalize();
+        if (!path.startsWith(root)) {
+            throw new IllegalArgumentException("Attachment path escapes the upload directory: " + relativePath);
+        }
+        return path;
+    }
+
+    public void delete(String relativePath) {
+        delete(resolve(relativePath));
+    }
+
+    public void delete(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            logger.warn("Failed to delete attachment file {}: {}", path, e.getMessage());
+        }
+    }
+
+    // Helper methods
+    // Patterns are exact types or end in a wildcard, such as text/*
+    static boolean matchesAny(String mimeType, List<String> patterns) {
+        if (mimeType == null) {
+            return false;
+        }
+        for (String type : patterns) {
+            String pattern = type.trim();
+            if (pattern.endsWith("*") ? mimeType.startsWith(pattern.substring(0, pattern.length() - 1))
+                    : mimeType.equals(pattern)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Digest copy(InputStream content, long maxBytes, WritableByteChannel out) throws IOException {
+        MessageDigest digest = sha256();
+        long size = 0;
+        ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        try (ReadableByteChannel in = Channels.newChannel(content)) {
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                size += read;
+                if (size > maxBytes) {
+                    throw new IllegalArgumentException("File exceeds the maximum size of " + maxBytes + " bytes");
+                }
+                digest.update(buffer.array(), 0, buffer.position());
+                buffer.flip();
+                while (out != null && buffer.hasRemaining()) {
+                    out.write(buffer);
+                }
+                buffer.clear();
+            }
+        }
+        return new Digest(size, HexFormat.of().formatHex(digest.digest()));
+    }
+
+    static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    public record Digest(long size, String sha256) {
+    }
+
+    // size is of the original content, storedSize of the file as written
+    public record StagedFile(Path path, long size, String sha256, String encoding, long storedSize) {
+    }
+
+    // GZIPOutputStream only offers the default level, which is slow for large logs
+    private static class GzipStream extends GZIPOutputStream {
+
+        GzipStream(OutputStream out, int level) throws IOException {
+            super(out, BUFFER_SIZE);
+            def.setLevel(level);
+        }
+    }
+}
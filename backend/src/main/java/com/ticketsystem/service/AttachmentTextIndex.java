@@ -0,0 +1,226 @@
+package com.ticketsystem.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Extracts the text of text-like attachments into {@code attachment_texts} so ticket
+ * search can match what is inside them.
+ *
+ * Extraction runs on a small background pool after an upload commits, and a scheduled
+ * sweep picks up anything the queue dropped or that was uploaded before indexing existed.
+ * Only the first {@code max-bytes} of a file are read. Text is stored once per content
+ * hash, and searches join through the attachment rows to find tickets.
+ */
+@Service
+public class AttachmentTextIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(AttachmentTextIndex.class);
+
+    private static final String INSERT_SQL =
+        "INSERT INTO attachment_texts (content_hash, content, truncated) VALUES (?, ?, ?) " +
+        "ON CONFLICT (content_hash) DO NOTHING";
+
+    @Value("${attachment-text.enabled:true}")
+    private boolean enabled;
+
+    @Value("${attachment-text.max-bytes:1048576}")
+    private int maxBytes;
+
+    @Value("${attachment-text.mime-types:text/*,application/json,application/x-ndjson,application/xml,"
+        + "application/csv,application/yaml,application/x-yaml,application/sql,application/javascript}")
+    private List<String> mimeTypes;
+
+    @Value("${attachment-text.threads:1}")
+    private int threads;
+
+    @Value("${attachment-text.queue-capacity:1000}")
+    private int queueCapacity;
+
+    @Value("${attachment-text.backfill-batch-size:100}")
+    private int backfillBatchSize;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private AttachmentStorage attachmentStorage;
+
+    private ThreadPoolExecutor executor;
+    private final Set<String> queued = ConcurrentHashMap.newKeySet();
+
+    private final AtomicLong indexed = new AtomicLong();
+    private final AtomicLong indexedBytes = new AtomicLong();
+    private final AtomicLong truncated = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong totalNanos = new AtomicLong();
+
+    @PostConstruct
+    void init() {
+        executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity), new CustomizableThreadFactory("attachment-text-"),
+            new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @PreDestroy
+    void stop() {
+        executor.shutdownNow();
+    }
+
+    public boolean supports(String mimeType) {
+        return enabled && AttachmentStorage.matchesAny(mimeType, mimeTypes);
+    }
+
+    // A full queue is fine; the backfill sweep finds the content later
+    public void indexAsync(String hash, String encoding) {
+        if (!queued.add(hash)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    index(hash, encoding);
+                } finally {
+                    queued.remove(hash);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            queued.remove(hash);
+            rejected.incrementAndGet();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${attachment-text.backfill-interval-ms:300000}")
+    public void backfill() {
+        if (!enabled || executor.getQueue().size() > queueCapacity / 2) {
+            return;
+        }
+        List<Object> args = new ArrayList<>();
+        String mimeFilter = mimeFilter(args);
+        args.add(backfillBatchSize);
+        try {
+            jdbcTemplate.query(
+                "SELECT DISTINCT b.hash, b.encoding FROM attachments a " +
+                "JOIN blobs b ON b.hash = a.content_hash " +
+                "WHERE (" + mimeFilter + ") " +
+                "AND NOT EXISTS (SELECT 1 FROM attachment_texts x WHERE x.content_hash = b.hash) LIMIT ?",
+                rs -> {
+                    indexAsync(rs.getString("hash"), rs.getString("encoding"));
+                }, args.toArray());
+        } catch (DataAccessException e) {
+            logger.error("Attachment text backfill failed: {}", e.getMessage());
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        long done = indexed.get();
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("maxBytes", maxBytes);
+        stats.put("queued", executor.getQueue().size());
+        stats.put("indexed", done);
+        stats.put("indexedBytes", indexedBytes.get());
+        stats.put("truncated", truncated.get());
+        stats.put("failed", failed.get());
+        stats.put("rejected", rejected.get());
+        stats.put("avgExtractionMs", done > 0 ? totalNanos.get() / done / 1_000_000.0 : 0.0);
+        return stats;
+    }
+
+    // Helper methods
+    private void index(String hash, String encoding) {
+        long startedAt = System.nanoTime();
+        String text;
+        boolean cut;
+        try (InputStream in = attachmentStorage.openContent(
+                attachmentStorage.resolve(BlobStore.blobPath(hash)), encoding)) {
+            byte[] bytes = in.readNBytes(maxBytes);
+            cut = in.read() != -1;
+            text = decode(bytes);
+        } catch (IOException e) {
+            logger.warn("Failed to extract text of {}: {}", hash, e.getMessage());
+            failed.incrementAndGet();
+            store(hash, "", false);
+            return;
+        }
+
+        if (!store(hash, text, cut)) {
+            // Usually a tsvector over the size limit; a shorter prefix still makes the file findable
+            failed.incrementAndGet();
+            if (!store(hash, text.substring(0, text.length() / 4), true)) {
+                store(hash, "", true);
+            }
+            return;
+        }
+        indexed.incrementAndGet();
+        indexedBytes.addAndGet(text.length());
+        if (cut) {
+            truncated.incrementAndGet();
+        }
+        totalNanos.addAndGet(System.nanoTime() - startedAt);
+    }
+
+    // False when the row could not be written; the blob may also be gone by now
+    private boolean store(String hash, String text, boolean cut) {
+        try {
+            jdbcTemplate.update(INSERT_SQL, hash, text, cut);
+            return true;
+        } catch (DataAccessException e) {
+            logger.debug("Failed to store text of {}: {}", hash, e.getMessage());
+            return false;
+        }
+    }
+
+    // Invalid UTF-8, including a character cut at the limit, becomes U+FFFD; NUL is not allowed in TEXT
+    private static String decode(byte[] bytes) throws CharacterCodingException {
+        return StandardCharsets.UTF_8.newDecoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE)
+            .decode(ByteBuffer.wrap(bytes))
+            .toString()
+            .replace('\u0000', ' ');
+    }
+
+    private String mimeFilter(List<Object> args) {
+        List<String> conditions = new ArrayList<>();
+        for (String type : mimeTypes) {
+            String pattern = type.trim();
+            if (pattern.endsWith("*")) {
+                conditions.add("a.mime_type LIKE ?");
+                args.add(pattern.substring(0, pattern.length() - 1) + "%");
+            } else {
+                conditions.add("a.mime_type = ?");
+                args.add(pattern);
+            }
+        }
+        return conditions.isEmpty() ? "FALSE" : String.join(" OR ", conditions);
+    }
+}
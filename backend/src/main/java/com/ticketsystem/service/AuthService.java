@@ -5,6 +5,7 @@ import com.ticketsystem.dto.LoginRequest;
 import com.ticketsystem.dto.RegisterRequest;
 import com.ticketsystem.entity.User;
 import com.ticketsystem.security.JwtUtil;
+import io.jsonwebtoken.Claims;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -14,10 +15,16 @@ import org.springframework.security.authentication.UsernamePasswordAuthenticatio
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.AuthenticationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
 
 @Service
 @Transactional
@@ -34,7 +41,17 @@ public class AuthService {
     @Autowired
     private JwtUtil jwtUtil;
 
+    private final AtomicLong logins = new AtomicLong();
+    private final AtomicLong failedLogins = new AtomicLong();
+    private final AtomicLong totalLoginNanos = new AtomicLong();
+    private final AtomicLong maxLoginNanos = new AtomicLong();
+
+    // Not transactional: the user lookup and any rehash run in their own short transactions,
+    // so no connection is held while waiting for the password hashing pool
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public AuthResponse login(LoginRequest loginRequest) {
+        long startedAt = System.nanoTime();
+        boolean succeeded = false;
         try {
             Authentication authentication = authenticationManager.authenticate(
                 new UsernamePasswordAuthenticationToken(
@@ -45,20 +62,25 @@ public class AuthService {
 
             User user = (User) authentication.getPrincipal();
             
-            // Create additional claims for JWT
-            Map<String, Object> claims = new HashMap<>();
-            claims.put("userId", user.getId().toString());
-            claims.put("role", user.getRole().name());
-            claims.put("fullName", user.getFullName());
+            Map<String, Object> claims = buildClaims(user);
 
             String token = jwtUtil.generateToken(user, claims);
 
             logger.info("User logged in successfully: {}", user.getEmail());
+            succeeded = true;
             return new AuthResponse(token, user);
 
         } catch (AuthenticationException e) {
             logger.error("Authentication failed for user: {}", loginRequest.getEmail());
             throw new BadCredentialsException("Invalid email or password");
+        } finally {
+            long elapsed = System.nanoTime() - startedAt;
+            logins.incrementAndGet();
+            if (!succeeded) {
+                failedLogins.incrementAndGet();
+            }
+            totalLoginNanos.addAndGet(elapsed);
+            maxLoginNanos.accumulateAndGet(elapsed, Math::max);
         }
     }
 
@@ -71,11 +93,7 @@ public class AuthService {
             registerRequest.getRole()
         );
 
-        // Create additional claims for JWT
-        Map<String, Object> claims = new HashMap<>();
-        claims.put("userId", user.getId().toString());
-        claims.put("role", user.getRole().name());
-        claims.put("fullName", user.getFullName());
+        Map<String, Object> claims = buildClaims(user);
 
         String token = jwtUtil.generateToken(user, claims);
 
@@ -85,15 +103,11 @@ public class AuthService {
 
     public AuthResponse refreshToken(String token) {
         try {
-            String username = jwtUtil.extractUsername(token);
-            User user = userService.getUserByEmail(username);
+            Claims tokenClaims = jwtUtil.verify(token);
+            User user = userService.getUserByEmail(tokenClaims.getSubject());
 
-            if (jwtUtil.validateToken(token, user)) {
-                // Create additional claims for JWT
-                Map<String, Object> claims = new HashMap<>();
-                claims.put("userId", user.getId().toString());
-                claims.put("role", user.getRole().name());
-                claims.put("fullName", user.getFullName());
+            if (jwtUtil.validateToken(token, user) && !isRevoked(user, tokenClaims.getIssuedAt())) {
+                Map<String, Object> claims = buildClaims(user);
 
                 String newToken = jwtUtil.generateToken(user, claims);
                 
@@ -108,7 +122,38 @@ public class AuthService {
         }
     }
 
+    public Map<String, Object> getLoginStats() {
+        long count = logins.get();
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("logins", count);
+        stats.put("failedLogins", failedLogins.get());
+        stats.put("avgLoginMs", count > 0 ? totalLoginNanos.get() / count / 1_000_000.0 : 0.0);
+        stats.put("maxLoginMs", maxLoginNanos.get() / 1_000_000.0);
+        return stats;
+    }
+
     public boolean validateToken(String token) {
         return jwtUtil.validateToken(token);
     }
+
+    // Helper methods
+    private boolean isRevoked(User user, Date issuedAt) {
+        if (!user.isEnabled()) {
+            return true;
+        }
+        LocalDateTime validAfter = user.getTokensValidAfter();
+        return validAfter != null && (issuedAt == null
+            || issuedAt.toInstant().isBefore(validAfter.atZone(ZoneId.systemDefault()).toInstant().truncatedTo(ChronoUnit.SECONDS)));
+    }
+
+    // Enough to rebuild the principal without a lookup in stateless principal mode
+    private Map<String, Object> buildClaims(User user) {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put("userId", user.getId().toString());
+        claims.put("role", user.getRole().name());
+        claims.put("fullName", user.getFullName());
+        claims.put("firstName", user.getFirstName());
+        claims.put("lastName", user.getLastName());
+        return claims;
+    }
 }
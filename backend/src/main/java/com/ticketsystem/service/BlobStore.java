@@ -0,0 +1,301 @@
+package com.ticketsystem.service;
+
+import com.ticketsystem.service.AttachmentStorage.Digest;
+import com.ticketsystem.service.AttachmentStorage.StagedFile;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.annotation.PostConstruct;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Content-addressed store for attachment bytes. Each distinct content is kept once under
+ * {@code blobs/<aa>/<bb>/<sha256>} and counted in the {@code blobs} table; triggers on the
+ * attachment tables keep the counts in step with the rows that point at a blob.
+ *
+ * A blob's row lock orders uploads against reclaiming: an upload locks the row before it
+ * moves its file into place, and the reclaimer deletes the file before it releases the lock.
+ */
+@Service
+public class BlobStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(BlobStore.class);
+
+    public static final String BLOB_DIR = "blobs";
+
+    private static final String LEGACY_ATTACHMENTS_SQL =
+        "SELECT id, file_path, content_hash FROM %s " +
+        "WHERE file_path NOT LIKE 'blobs/%%' AND id > ? ORDER BY id LIMIT ?";
+
+    @Value("${blobs.reclaim-batch-size:500}")
+    private int reclaimBatchSize;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private AttachmentStorage attachmentStorage;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+
+    private final AtomicLong storedBlobs = new AtomicLong();
+    private final AtomicLong deduplicatedUploads = new AtomicLong();
+    private final AtomicLong reclaimedBlobs = new AtomicLong();
+    private final AtomicLong reclaimedBytes = new AtomicLong();
+
+    @PostConstruct
+    void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public static String blobPath(String hash) {
+        return BLOB_DIR + "/" + hash.substring(0, 2) + "/" + hash.substring(2, 4) + "/" + hash;
+    }
+
+    public static boolean isBlobPath(String relativePath) {
+        return relativePath != null && relativePath.startsWith(BLOB_DIR + "/");
+    }
+
+    // Cheap pre-check; the answer is only final once reference() holds the row lock
+    public boolean contains(String hash) {
+        Integer found = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM blobs WHERE hash = ?", Integer.class, hash);
+        return found != null && found > 0 && attachmentStorage.exists(blobPath(hash));
+    }
+
+    /**
+     * Makes sure the blob exists for the current transaction, moving the staged file into
+     * place if its bytes are not stored yet. The count itself goes up when the attachment row
+     * is inserted. With no staged file, the blob must already be stored. Returns the blob's
+     * encoding, which is that of whichever copy was stored first.
+     *
+     * A moved file goes back to the staged path if the transaction rolls back, so the caller
+     * still owns it. A file with no committed row is never reused: its encoding is unknown.
+     */
+    public StoredBlob reference(String hash, long size, StagedFile staged) {
+        // The row carries the encoding of the file it is created for, so the two never disagree
+        boolean created = jdbcTemplate.update(
+            "INSERT INTO blobs (hash, size, stored_size, encoding) VALUES (?, ?, ?, ?) ON CONFLICT (hash) DO NOTHING",
+            hash, size, staged != null ? staged.storedSize() : size, staged != null ? staged.encoding() : null) > 0;
+        String encoding = jdbcTemplate.queryForObject(
+            "SELECT encoding FROM blobs WHERE hash = ? FOR UPDATE", String.class, hash);
+
+        String path = blobPath(hash);
+        if (!created && attachmentStorage.exists(path)) {
+            deduplicatedUploads.incrementAndGet();
+            return new StoredBlob(path, encoding);
+        }
+        if (staged == null) {
+            throw new IllegalStateException("Stored content is no longer available, please upload the file again");
+        }
+        try {
+            // Replaces any file left behind without a row
+            attachmentStorage.moveIntoPlace(staged.path(), path);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to store blob " + hash, e);
+        }
+        moveBackOnRollback(path, staged.path());
+        if (!created) {
+            jdbcTemplate.update("UPDATE blobs SET encoding = ?, stored_size = ? WHERE hash = ?",
+                staged.encoding(), staged.storedSize(), hash);
+        }
+        storedBlobs.incrementAndGet();
+        return new StoredBlob(path, staged.encoding());
+    }
+
+    // Called once the attachment row is gone; frees the blob if nothing else points at it
+    public void releaseAfterCommit(String hash) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                try {
+                    reclaim(hash);
+                } catch (DataAccessException e) {
+                    logger.warn("Failed to reclaim blob {}: {}", hash, e.getMessage());
+                }
+            }
+        });
+    }
+
+    // Picks up blobs released by cascading ticket deletes and by failed reclaims
+    @Scheduled(fixedDelayString = "${blobs.reclaim-interval-ms:600000}")
+    public void reclaimUnreferenced() {
+        try {
+            List<String> hashes = jdbcTemplate.queryForList(
+                "SELECT hash FROM blobs WHERE ref_count = 0 ORDER BY created_at LIMIT ?", String.class, reclaimBatchSize);
+            hashes.forEach(this::reclaim);
+        } catch (DataAccessException e) {
+            logger.error("Blob reclaim failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Moves attachments stored before the blob store into it, in place: the first file with
+     * a given content is renamed to its blob path and later copies are deleted. Works through
+     * at most {@code maxFiles} rows per call and reports what is left.
+     */
+    public Map<String, Object> deduplicateLegacyFiles(int maxFiles) {
+        if (maxFiles <= 0) {
+            throw new IllegalArgumentException("maxFiles must be positive");
+        }
+        Map<String, Object> result = new HashMap<>();
+        long[] counts = new long[4]; // migrated, deduplicated, missing, bytes reclaimed
+        int processed = 0;
+        for (String table : new String[] {"attachments", "archived_attachments"}) {
+            // Postgres orders uuids as unsigned bytes, so the all-zero id sorts first
+            UUID after = new UUID(0, 0);
+            while (processed < maxFiles) {
+                List<Map<String, Object>> rows = jdbcTemplate.queryForList(
+                    String.format(LEGACY_ATTACHMENTS_SQL, table), after, Math.min(100, maxFiles - processed));
+                if (rows.isEmpty()) {
+                    break;
+                }
+                for (Map<String, Object> row : rows) {
+                    after = (UUID) row.get("id");
+                    migrateLegacyFile(table, after, (String) row.get("file_path"), (String) row.get("content_hash"), counts);
+                    processed++;
+                }
+            }
+        }
+
+        result.put("processed", processed);
+        result.put("migrated", counts[0]);
+        result.put("deduplicated", counts[1]);
+        result.put("missingFiles", counts[2]);
+        result.put("bytesReclaimed", counts[3]);
+        result.put("remaining", jdbcTemplate.queryForObject(
+            "SELECT (SELECT COUNT(*) FROM attachments WHERE file_path NOT LIKE 'blobs/%') + " +
+            "(SELECT COUNT(*) FROM archived_attachments WHERE file_path NOT LIKE 'blobs/%')", Long.class));
+        return result;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        try {
+            Map<String, Object> totals = jdbcTemplate.queryForMap(
+                "SELECT COUNT(*) AS blobs, COALESCE(SUM(size), 0) AS bytes, " +
+                "COALESCE(SUM(stored_size), 0) AS storedBytes, COUNT(encoding) AS compressedBlobs, " +
+                "COUNT(*) FILTER (WHERE ref_count = 0) AS unreferenced FROM blobs");
+            stats.putAll(totals);
+        } catch (DataAccessException e) {
+            stats.put("error", e.getMessage());
+        }
+        stats.put("storedBlobs", storedBlobs.get());
+        stats.put("deduplicatedUploads", deduplicatedUploads.get());
+        stats.put("reclaimedBlobs", reclaimedBlobs.get());
+        stats.put("reclaimedBytes", reclaimedBytes.get());
+        return stats;
+    }
+
+    // Helper methods
+    private void reclaim(String hash) {
+        transactionTemplate.executeWithoutResult(status -> {
+            List<Long> sizes = jdbcTemplate.queryForList(
+                "SELECT size FROM blobs WHERE hash = ? AND ref_count = 0 FOR UPDATE SKIP LOCKED", Long.class, hash);
+            if (sizes.isEmpty()) {
+                return;
+            }
+            jdbcTemplate.update("DELETE FROM blobs WHERE hash = ?", hash);
+            // Deleted while the row is still locked, so no upload can be relying on the file
+            attachmentStorage.delete(blobPath(hash));
+            attachmentStorage.delete(ThumbnailService.thumbnailPath(hash));
+            reclaimedBlobs.incrementAndGet();
+            reclaimedBytes.addAndGet(sizes.get(0));
+        });
+    }
+
+    private void moveBackOnRollback(String blobPath, Path source) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            private boolean committing;
+
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                committing = true;
+            }
+
+            // A rollback still holds the row lock here, so no other upload can have stored the blob yet
+            @Override
+            public void beforeCompletion() {
+                if (!committing) {
+                    moveBack();
+                }
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (committing && status != STATUS_COMMITTED) {
+                    moveBack();
+                }
+            }
+
+            private void moveBack() {
+                try {
+                    Files.move(attachmentStorage.resolve(blobPath), source);
+                } catch (IOException e) {
+                    logger.error("Failed to move {} back to {}: {}", blobPath, source, e.getMessage());
+                }
+            }
+        });
+    }
+
+    private void migrateLegacyFile(String table, UUID id, String legacyPath, String knownHash, long[] counts) {
+        Path legacyFile = attachmentStorage.resolve(legacyPath);
+        try {
+            String hash = knownHash;
+            long size = Files.size(legacyFile);
+            if (hash == null) {
+                try (InputStream in = Files.newInputStream(legacyFile)) {
+                    Digest digest = attachmentStorage.digest(in, Long.MAX_VALUE);
+                    hash = digest.sha256();
+                }
+            }
+
+            String contentHash = hash;
+            transactionTemplate.executeWithoutResult(status -> {
+                StoredBlob blob = reference(contentHash, size, new StagedFile(legacyFile, size, contentHash, null, size));
+                jdbcTemplate.update(String.format(
+                    "UPDATE %s SET file_path = ?, content_hash = ?, content_encoding = ? WHERE id = ?", table),
+                    blob.path(), contentHash, blob.encoding(), id);
+            });
+
+            // Still there when the content was already stored
+            if (Files.exists(legacyFile)) {
+                attachmentStorage.delete(legacyFile);
+                counts[1]++;
+                counts[3] += size;
+            } else {
+                counts[0]++;
+            }
+        } catch (NoSuchFileException e) {
+            logger.warn("Attachment {} in {} has no file at {}", id, table, legacyPath);
+            counts[2]++;
+        } catch (IOException | RuntimeException e) {
+            logger.error("Failed to move attachment {} into the blob store: {}", id, e.getMessage());
+        }
+    }
+
+    public record StoredBlob(String path, String encoding) {
+    }
+}
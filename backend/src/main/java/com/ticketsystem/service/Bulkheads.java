@@ -0,0 +1,130 @@
+package com.ticketsystem.service;
+
+import com.ticketsystem.exception.ServiceUnavailableException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Bounded pools for the expensive read workloads, kept apart from core ticket and comment
+ * traffic, which stays on request threads.
+ *
+ * Every task runs in one read-only transaction, so a pool's thread count is also the most
+ * database connections that workload can hold at once. The rest of the Hikari pool stays
+ * free for core traffic. Work that does not fit in a pool's queue is rejected with 503.
+ */
+@Component
+public class Bulkheads {
+
+    private static final Logger logger = LoggerFactory.getLogger(Bulkheads.class);
+
+    public enum Workload {
+        ANALYTICS, SEARCH
+    }
+
+    @Value("${bulkhead.analytics.threads:2}")
+    private int analyticsThreads;
+
+    @Value("${bulkhead.analytics.queue-capacity:20}")
+    private int analyticsQueueCapacity;
+
+    @Value("${bulkhead.search.threads:4}")
+    private int searchThreads;
+
+    @Value("${bulkhead.search.queue-capacity:100}")
+    private int searchQueueCapacity;
+
+    @Value("${bulkhead.search.large-page-size:100}")
+    private int largePageSize;
+
+    @Value("${spring.datasource.hikari.maximum-pool-size:10}")
+    private int connectionPoolSize;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final Map<Workload, ThreadPoolExecutor> executors = new EnumMap<>(Workload.class);
+    private final Map<Workload, AtomicLong> rejected = new EnumMap<>(Workload.class);
+    private TransactionTemplate readOnlyTransaction;
+
+    @PostConstruct
+    void init() {
+        executors.put(Workload.ANALYTICS, newExecutor("bulkhead-analytics-", analyticsThreads, analyticsQueueCapacity));
+        executors.put(Workload.SEARCH, newExecutor("bulkhead-search-", searchThreads, searchQueueCapacity));
+        for (Workload workload : Workload.values()) {
+            rejected.put(workload, new AtomicLong());
+        }
+
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+
+        int budgeted = analyticsThreads + searchThreads;
+        if (budgeted >= connectionPoolSize) {
+            logger.warn("Bulkheads may hold {} of {} pooled connections, leaving too few for core traffic",
+                budgeted, connectionPoolSize);
+        }
+    }
+
+    @PreDestroy
+    void stop() {
+        executors.values().forEach(ThreadPoolExecutor::shutdownNow);
+    }
+
+    // Runs the work, including any entity-to-DTO mapping, inside one read-only transaction
+    public <T> CompletableFuture<T> supply(Workload workload, Supplier<T> work) {
+        try {
+            return CompletableFuture.supplyAsync(() -> readOnlyTransaction.execute(status -> work.get()),
+                executors.get(workload));
+        } catch (RejectedExecutionException e) {
+            rejected.get(workload).incrementAndGet();
+            throw new ServiceUnavailableException("Server is busy, please retry shortly");
+        }
+    }
+
+    // Pages this large are treated as search work rather than core traffic
+    public boolean isLargePage(int size) {
+        return size > largePageSize;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("connectionPoolSize", connectionPoolSize);
+        for (Workload workload : Workload.values()) {
+            ThreadPoolExecutor executor = executors.get(workload);
+            Map<String, Object> info = new LinkedHashMap<>();
+            info.put("threads", executor.getMaximumPoolSize());
+            info.put("active", executor.getActiveCount());
+            info.put("queued", executor.getQueue().size());
+            info.put("queueCapacity", executor.getQueue().size() + executor.getQueue().remainingCapacity());
+            info.put("completed", executor.getCompletedTaskCount());
+            info.put("rejected", rejected.get(workload).get());
+            stats.put(workload.name().toLowerCase(), info);
+        }
+        return stats;
+    }
+
+    // Helper methods
+    private ThreadPoolExecutor newExecutor(String prefix, int threads, int queueCapacity) {
+        return new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity), new CustomizableThreadFactory(prefix),
+            new ThreadPoolExecutor.AbortPolicy());
+    }
+}
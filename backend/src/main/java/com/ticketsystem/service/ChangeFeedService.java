@@ -0,0 +1,121 @@
+package com.ticketsystem.service;
+
+import com.ticketsystem.dto.ChangeFeedDto;
+import com.ticketsystem.dto.CommentDto;
+import com.ticketsystem.dto.TicketDto;
+import com.ticketsystem.entity.ChangeTombstone;
+import com.ticketsystem.entity.Comment;
+import com.ticketsystem.entity.Ticket;
+import com.ticketsystem.entity.User;
+import com.ticketsystem.repository.ChangeTombstoneRepository;
+import com.ticketsystem.repository.CommentRepository;
+import com.ticketsystem.repository.TicketRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Incremental change feed over tickets, comments and deletions.
+ *
+ * Every write takes the next value of the shared {@code change_seq} sequence, so a
+ * client that remembers the last cursor only reads rows changed since then. Values are
+ * taken at write time and commit out of order, so reads stop at the watermark from
+ * {@code change_seq_watermark()}, below which no open transaction can still commit a
+ * row. Each source is read with the same limit and the results are merged by sequence,
+ * which keeps the returned page contiguous and the cursor resumable.
+ */
+@Service
+@Transactional(readOnly = true)
+public class ChangeFeedService {
+
+    private static final String CURSOR_PREFIX = "v1:";
+
+    @Value("${change-feed.max-limit:500}")
+    private int maxLimit;
+
+    @Autowired
+    private TicketRepository ticketRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private ChangeTombstoneRepository changeTombstoneRepository;
+
+    public ChangeFeedDto getChangesSince(String cursor, int limit, User user) {
+        long since = decodeCursor(cursor);
+        long until = changeTombstoneRepository.findChangeSeqWatermark();
+        int pageSize = Math.max(1, Math.min(limit, maxLimit));
+        // One extra row per source tells us whether another page exists
+        Pageable pageable = PageRequest.of(0, pageSize + 1);
+
+        List<Ticket> tickets;
+        List<Comment> comments;
+        List<ChangeTombstone> tombstones;
+        if (user.getRole().hasSupportPrivileges()) {
+            tickets = ticketRepository.findChangedSince(since, until, pageable);
+            comments = commentRepository.findChangedSince(since, until, pageable);
+            tombstones = changeTombstoneRepository.findChangedSince(since, until, pageable);
+        } else {
+            tickets = ticketRepository.findChangedSinceForUser(since, until, user, pageable);
+            comments = commentRepository.findChangedSinceForUser(since, until, user, pageable);
+            tombstones = changeTombstoneRepository.findChangedSinceForUser(since, until, user.getId(), pageable);
+        }
+
+        List<Change> changes = new ArrayList<>(tickets.size() + comments.size() + tombstones.size());
+        tickets.forEach(ticket -> changes.add(new Change(ticket.getChangeSeq(), ticket)));
+        comments.forEach(comment -> changes.add(new Change(comment.getChangeSeq(), comment)));
+        tombstones.forEach(tombstone -> changes.add(new Change(tombstone.getChangeSeq(), tombstone)));
+        changes.sort(Comparator.comparingLong(Change::seq));
+
+        ChangeFeedDto feed = new ChangeFeedDto();
+        long lastSeq = since;
+        for (int i = 0; i < Math.min(pageSize, changes.size()); i++) {
+            Change change = changes.get(i);
+            if (change.entity() instanceof Ticket ticket) {
+                feed.getTickets().add(TicketDto.fromEntity(ticket));
+            } else if (change.entity() instanceof Comment comment) {
+                feed.getComments().add(CommentDto.fromEntity(comment));
+            } else {
+                feed.getDeletions().add(ChangeFeedDto.DeletionDto.fromEntity((ChangeTombstone) change.entity()));
+            }
+            lastSeq = change.seq();
+        }
+
+        feed.setCursor(encodeCursor(lastSeq));
+        feed.setHasMore(changes.size() > pageSize);
+        return feed;
+    }
+
+    // Helper methods
+    private String encodeCursor(long seq) {
+        return Base64.getUrlEncoder().withoutPadding()
+            .encodeToString((CURSOR_PREFIX + seq).getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private long decodeCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0L;
+        }
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.US_ASCII);
+            if (!decoded.startsWith(CURSOR_PREFIX)) {
+                throw new IllegalArgumentException("Invalid change feed cursor");
+            }
+            return Long.parseLong(decoded.substring(CURSOR_PREFIX.length()));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid change feed cursor", e);
+        }
+    }
+
+    private record Change(long seq, Object entity) {}
+}
@@ -1,16 +1,22 @@
 package com.ticketsystem.service;
 
 import com.ticketsystem.dto.CreateCommentRequest;
+import com.ticketsystem.entity.ChangeTombstone;
 import com.ticketsystem.entity.Comment;
 import com.ticketsystem.entity.Ticket;
 import com.ticketsystem.entity.User;
+import com.ticketsystem.event.TicketChangeEvent;
+import com.ticketsystem.event.TicketChangeType;
 import com.ticketsystem.exception.ResourceNotFoundException;
 import com.ticketsystem.exception.UnauthorizedOperationException;
+import com.ticketsystem.repository.ChangeTombstoneRepository;
 import com.ticketsystem.repository.CommentRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -28,11 +34,20 @@ public class CommentService {
     @Autowired
     private CommentRepository commentRepository;
 
+    @Autowired
+    private ChangeTombstoneRepository changeTombstoneRepository;
+
     @Autowired
     private TicketService ticketService;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     public Comment addComment(UUID ticketId, CreateCommentRequest request, User author) {
         Ticket ticket = ticketService.getTicketByIdWithAccess(ticketId, author);
+        if (ticket.isArchived()) {
+            throw new IllegalStateException("Ticket " + ticketId + " is archived and read-only");
+        }
         
         Comment comment = new Comment();
         comment.setContent(request.getContent());
@@ -40,21 +55,11 @@ public class CommentService {
         comment.setAuthor(author);
 
         Comment savedComment = commentRepository.save(comment);
+        eventPublisher.publishEvent(TicketChangeEvent.forComment(TicketChangeType.COMMENT_CREATED, savedComment, author));
         logger.info("Added comment to ticket {} by user {}", ticketId, author.getEmail());
         return savedComment;
     }
 
-    public Comment addSystemComment(Ticket ticket, String content) {
-        Comment comment = new Comment();
-        comment.setContent(content);
-        comment.setTicket(ticket);
-        comment.setAuthor(ticket.getCreatedBy()); // Use ticket creator as system comment author
-        
-        Comment savedComment = commentRepository.save(comment);
-        logger.debug("Added system comment to ticket {}", ticket.getId());
-        return savedComment;
-    }
-
     public Comment getCommentById(UUID id) {
         return commentRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Comment not found with id: " + id));
@@ -72,12 +77,21 @@ public class CommentService {
 
     public List<Comment> getCommentsByTicket(UUID ticketId, User user) {
         Ticket ticket = ticketService.getTicketByIdWithAccess(ticketId, user);
-        return commentRepository.findByTicketOrderByCreatedAtAsc(ticket);
+        if (ticket.isArchived()) {
+            return ticket.getComments();
+        }
+        return commentRepository.findByTicketCreatedSince(ticket, ticket.getActivityLowerBound());
     }
 
     public Page<Comment> getCommentsByTicket(UUID ticketId, User user, Pageable pageable) {
         Ticket ticket = ticketService.getTicketByIdWithAccess(ticketId, user);
-        return commentRepository.findByTicket(ticket, pageable);
+        if (ticket.isArchived()) {
+            List<Comment> comments = ticket.getComments();
+            int from = (int) Math.min(pageable.getOffset(), comments.size());
+            int to = Math.min(from + pageable.getPageSize(), comments.size());
+            return new PageImpl<>(comments.subList(from, to), pageable, comments.size());
+        }
+        return commentRepository.findByTicketCreatedSince(ticket, ticket.getActivityLowerBound(), pageable);
     }
 
     public Page<Comment> getCommentsByAuthor(User author, Pageable pageable) {
@@ -97,6 +111,7 @@ public class CommentService {
 
         comment.setContent(newContent);
         Comment savedComment = commentRepository.save(comment);
+        eventPublisher.publishEvent(TicketChangeEvent.forComment(TicketChangeType.COMMENT_UPDATED, savedComment, updatedBy));
         
         logger.info("Updated comment {} by user {}", id, updatedBy.getEmail());
         return savedComment;
@@ -110,18 +125,27 @@ public class CommentService {
         }
 
         commentRepository.delete(comment);
+        changeTombstoneRepository.save(ChangeTombstone.forComment(comment));
+        eventPublisher.publishEvent(TicketChangeEvent.forComment(TicketChangeType.COMMENT_DELETED, comment, deletedBy));
         logger.info("Deleted comment {} by user {}", id, deletedBy.getEmail());
     }
 
     public List<Comment> getRecentCommentsByTicket(UUID ticketId, User user, int hours) {
         Ticket ticket = ticketService.getTicketByIdWithAccess(ticketId, user);
+        if (ticket.isArchived()) {
+            // Archived tickets have been closed for longer than any recent window
+            return List.of();
+        }
         LocalDateTime since = LocalDateTime.now().minusHours(hours);
         return commentRepository.findRecentCommentsByTicket(ticket, since);
     }
 
     public long getCommentCountByTicket(UUID ticketId, User user) {
         Ticket ticket = ticketService.getTicketByIdWithAccess(ticketId, user);
-        return commentRepository.countByTicket(ticket);
+        if (ticket.isArchived()) {
+            return ticket.getComments().size();
+        }
+        return commentRepository.countByTicketCreatedSince(ticket, ticket.getActivityLowerBound());
     }
 
     public long getCommentCountByAuthor(User author) {
@@ -0,0 +1,337 @@
+package com.ticketsystem.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.annotation.PostConstruct;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Removes files under the upload directory that nothing refers to, such as files left
+ * behind by cascading ticket deletes, rolled-back uploads and abandoned temp files.
+ *
+ * The directory is walked a slice at a time in path order, and the last path checked is
+ * kept in {@code upload_gc_state}, so a pass is spread over many short runs and resumes
+ * after a restart. References are looked up in batches: blob files and thumbnails against
+ * {@code blobs}, other files against the paths on the attachment tables. An orphan is
+ * first moved to {@code quarantine/} and only deleted once it has stayed unreferenced
+ * there for the configured time. Files younger than the minimum age are never touched.
+ */
+@Service
+public class OrphanFileCollector {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrphanFileCollector.class);
+
+    public static final String QUARANTINE_DIR = "quarantine";
+
+    private static final Pattern BLOB_FILE =
+        Pattern.compile("^" + BlobStore.BLOB_DIR + "/[0-9a-f]{2}/[0-9a-f]{2}/([0-9a-f]{64})(\\.thumb\\.jpg)?$");
+    private static final String TEMP_SUFFIX = ".part";
+
+    @Value("${upload-gc.enabled:true}")
+    private boolean enabled;
+
+    @Value("${upload-gc.files-per-slice:1000}")
+    private int filesPerSlice;
+
+    @Value("${upload-gc.batch-size:100}")
+    private int batchSize;
+
+    @Value("${upload-gc.min-age-hours:24}")
+    private long minAgeHours;
+
+    @Value("${upload-gc.quarantine-hours:72}")
+    private long quarantineHours;
+
+    @Value("${upload-gc.pass-interval-hours:24}")
+    private long passIntervalHours;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private AttachmentStorage attachmentStorage;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+
+    private final AtomicLong filesScanned = new AtomicLong();
+    private final AtomicLong quarantinedFiles = new AtomicLong();
+    private final AtomicLong quarantinedBytes = new AtomicLong();
+    private final AtomicLong restoredFiles = new AtomicLong();
+    private final AtomicLong deletedFiles = new AtomicLong();
+    private final AtomicLong reclaimedBytes = new AtomicLong();
+
+    @PostConstruct
+    void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    // One slice per run; the pause between runs is the throttle
+    @Scheduled(fixedDelayString = "${upload-gc.interval-ms:10000}")
+    public void collectSlice() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> runSlice());
+        } catch (DataAccessException | UncheckedIOException e) {
+            logger.error("Upload directory collection failed: {}", e.getMessage());
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("enabled", enabled);
+        try {
+            stats.putAll(jdbcTemplate.queryForMap(
+                "SELECT checkpoint, pass_started_at AS \"passStartedAt\", pass_files AS \"passFiles\", " +
+                "pass_orphans AS \"passOrphans\", last_pass_completed_at AS \"lastPassCompletedAt\", " +
+                "last_pass_files AS \"lastPassFiles\", last_pass_orphans AS \"lastPassOrphans\", " +
+                "last_pass_orphan_bytes AS \"lastPassOrphanBytes\" FROM upload_gc_state WHERE id = 1"));
+        } catch (DataAccessException e) {
+            stats.put("error", e.getMessage());
+        }
+        stats.put("filesScanned", filesScanned.get());
+        stats.put("quarantinedFiles", quarantinedFiles.get());
+        stats.put("quarantinedBytes", quarantinedBytes.get());
+        stats.put("restoredFiles", restoredFiles.get());
+        stats.put("deletedFiles", deletedFiles.get());
+        stats.put("reclaimedBytes", reclaimedBytes.get());
+        return stats;
+    }
+
+    // Helper methods
+    // Runs with the state row locked, so only one node walks the directory at a time
+    private void runSlice() {
+        List<Map<String, Object>> rows = jdbcTemplate.queryForList(
+            "SELECT checkpoint, last_pass_completed_at FROM upload_gc_state WHERE id = 1 FOR UPDATE SKIP LOCKED");
+        if (rows.isEmpty()) {
+            return;
+        }
+        String checkpoint = (String) rows.get(0).get("checkpoint");
+        if (checkpoint == null) {
+            Timestamp lastPass = (Timestamp) rows.get(0).get("last_pass_completed_at");
+            if (lastPass != null && lastPass.toInstant().isAfter(Instant.now().minus(passIntervalHours, ChronoUnit.HOURS))) {
+                return;
+            }
+            jdbcTemplate.update("UPDATE upload_gc_state SET checkpoint = '', pass_started_at = CURRENT_TIMESTAMP, " +
+                "pass_files = 0, pass_orphans = 0, pass_orphan_bytes = 0 WHERE id = 1");
+            checkpoint = "";
+        }
+
+        try {
+            purgeQuarantine();
+
+            List<Candidate> files = new ArrayList<>();
+            String[] resumeAfter = checkpoint.isEmpty() ? new String[0] : checkpoint.split("/");
+            collectFiles(attachmentStorage.getRoot(), "", resumeAfter, 0, files);
+            filesScanned.addAndGet(files.size());
+
+            Instant cutoff = Instant.now().minus(minAgeHours, ChronoUnit.HOURS);
+            long orphans = 0;
+            long orphanBytes = 0;
+            for (int i = 0; i < files.size(); i += batchSize) {
+                List<Candidate> batch = files.subList(i, Math.min(i + batchSize, files.size())).stream()
+                    .filter(file -> file.modifiedAt().isBefore(cutoff))
+                    .toList();
+                Set<String> referenced = findReferenced(batch);
+                for (Candidate file : batch) {
+                    if (!referenced.contains(file.path()) && quarantine(file)) {
+                        orphans++;
+                        orphanBytes += file.size();
+                    }
+                }
+            }
+
+            if (files.size() < filesPerSlice) {
+                jdbcTemplate.update("UPDATE upload_gc_state SET checkpoint = NULL, " +
+                    "last_pass_completed_at = CURRENT_TIMESTAMP, last_pass_files = pass_files + ?, " +
+                    "last_pass_orphans = pass_orphans + ?, last_pass_orphan_bytes = pass_orphan_bytes + ? WHERE id = 1",
+                    files.size(), orphans, orphanBytes);
+                logger.info("Upload directory pass complete");
+            } else {
+                jdbcTemplate.update("UPDATE upload_gc_state SET checkpoint = ?, pass_files = pass_files + ?, " +
+                    "pass_orphans = pass_orphans + ?, pass_orphan_bytes = pass_orphan_bytes + ? WHERE id = 1",
+                    files.get(files.size() - 1).path(), files.size(), orphans, orphanBytes);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Appends up to a slice of regular files that sort after the checkpoint, in path order.
+     * Each directory is listed and sorted on its own, and blob directories fan out by hash,
+     * so no listing holds more than one directory's names.
+     */
+    private void collectFiles(Path dir, String prefix, String[] checkpoint, int depth,
+                              List<Candidate> out) throws IOException {
+        List<Path> entries = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir)) {
+            stream.forEach(entries::add);
+        } catch (NoSuchFileException e) {
+            return;
+        }
+        entries.sort(Comparator.comparing(entry -> entry.getFileName().toString()));
+
+        for (Path entry : entries) {
+            if (out.size() >= filesPerSlice) {
+                return;
+            }
+            String name = entry.getFileName().toString();
+            // Chunked upload files belong to UploadSessionService, which cleans them up itself
+            boolean ownDir = name.equals(QUARANTINE_DIR) || name.equals(UploadSessionService.SESSION_DIR);
+            if (ownDir && dir.equals(attachmentStorage.getRoot())) {
+                continue;
+            }
+            int order = depth < checkpoint.length ? name.compareTo(checkpoint[depth]) : 1;
+            if (order < 0) {
+                continue;
+            }
+            BasicFileAttributes attributes;
+            try {
+                attributes = Files.readAttributes(entry, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+            } catch (NoSuchFileException e) {
+                continue;
+            }
+            if (attributes.isDirectory()) {
+                collectFiles(entry, prefix + name + "/", order == 0 ? checkpoint : new String[0], depth + 1, out);
+            } else if (attributes.isRegularFile() && order > 0) {
+                out.add(new Candidate(prefix + name, attributes.size(), attributes.lastModifiedTime().toInstant()));
+            }
+        }
+    }
+
+    // Relative paths out of the batch that a blob row or an attachment row still points at
+    private Set<String> findReferenced(List<Candidate> batch) {
+        Map<String, List<String>> pathsByHash = new HashMap<>();
+        List<String> legacyPaths = new ArrayList<>();
+        for (Candidate file : batch) {
+            Matcher matcher = BLOB_FILE.matcher(file.path());
+            if (matcher.matches()) {
+                pathsByHash.computeIfAbsent(matcher.group(1), hash -> new ArrayList<>()).add(file.path());
+            } else if (!file.path().endsWith(TEMP_SUFFIX)) {
+                legacyPaths.add(file.path());
+            }
+        }
+
+        Set<String> referenced = new HashSet<>();
+        if (!pathsByHash.isEmpty()) {
+            List<Object> hashes = new ArrayList<>(pathsByHash.keySet());
+            jdbcTemplate.queryForList("SELECT hash FROM blobs WHERE hash IN (" + placeholders(hashes.size()) + ")",
+                String.class, hashes.toArray()).forEach(hash -> referenced.addAll(pathsByHash.get(hash)));
+        }
+        if (!legacyPaths.isEmpty()) {
+            String in = placeholders(legacyPaths.size());
+            List<Object> args = new ArrayList<>(legacyPaths);
+            args.addAll(legacyPaths);
+            referenced.addAll(jdbcTemplate.queryForList(
+                "SELECT file_path FROM attachments WHERE file_path IN (" + in + ") " +
+                "UNION SELECT file_path FROM archived_attachments WHERE file_path IN (" + in + ")",
+                String.class, args.toArray()));
+        }
+        return referenced;
+    }
+
+    /**
+     * Moves an orphan into quarantine. A blob file is only moved while this transaction holds
+     * a placeholder row for its hash, which makes a concurrent upload of the same content wait
+     * and then store its own copy rather than deduplicate against the file being moved.
+     */
+    private boolean quarantine(Candidate file) throws IOException {
+        Matcher matcher = BLOB_FILE.matcher(file.path());
+        boolean blobFile = matcher.matches() && matcher.group(2) == null;
+        if (blobFile && jdbcTemplate.update(
+                "INSERT INTO blobs (hash, size, stored_size) VALUES (?, 0, 0) ON CONFLICT (hash) DO NOTHING",
+                matcher.group(1)) == 0) {
+            return false;
+        }
+
+        Path target = attachmentStorage.resolve(QUARANTINE_DIR + "/" + file.path());
+        try {
+            Files.createDirectories(target.getParent());
+            Files.move(attachmentStorage.resolve(file.path()), target, StandardCopyOption.REPLACE_EXISTING);
+            // The quarantine clock starts now, not when the file was written
+            Files.setLastModifiedTime(target, FileTime.from(Instant.now()));
+        } catch (NoSuchFileException e) {
+            return false;
+        } finally {
+            if (blobFile) {
+                jdbcTemplate.update("DELETE FROM blobs WHERE hash = ?", matcher.group(1));
+            }
+        }
+        quarantinedFiles.incrementAndGet();
+        quarantinedBytes.addAndGet(file.size());
+        logger.info("Quarantined unreferenced upload file {} ({} bytes)", file.path(), file.size());
+        return true;
+    }
+
+    // Files referenced again since they were quarantined go back if their place is still empty
+    private void purgeQuarantine() throws IOException {
+        Path quarantine = attachmentStorage.resolve(QUARANTINE_DIR);
+        List<Candidate> files = new ArrayList<>();
+        collectFiles(quarantine, "", new String[0], 0, files);
+
+        Instant cutoff = Instant.now().minus(quarantineHours, ChronoUnit.HOURS);
+        List<Candidate> expired = files.stream().filter(file -> file.modifiedAt().isBefore(cutoff)).toList();
+        for (int i = 0; i < expired.size(); i += batchSize) {
+            List<Candidate> batch = expired.subList(i, Math.min(i + batchSize, expired.size()));
+            Set<String> referenced = findReferenced(batch);
+            for (Candidate file : batch) {
+                Path quarantined = quarantine.resolve(file.path());
+                Path original = attachmentStorage.resolve(file.path());
+                if (referenced.contains(file.path()) && !Files.exists(original)) {
+                    Files.createDirectories(original.getParent());
+                    Files.move(quarantined, original);
+                    restoredFiles.incrementAndGet();
+                    logger.warn("Restored quarantined upload file {}, it is referenced again", file.path());
+                } else {
+                    attachmentStorage.delete(quarantined);
+                    deletedFiles.incrementAndGet();
+                    reclaimedBytes.addAndGet(file.size());
+                }
+            }
+        }
+    }
+
+    private static String placeholders(int count) {
+        return String.join(",", Collections.nCopies(count, "?"));
+    }
+
+    private record Candidate(String path, long size, Instant modifiedAt) {
+    }
+}
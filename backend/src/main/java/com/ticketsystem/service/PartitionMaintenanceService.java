@@ -0,0 +1,152 @@
+package com.ticketsystem.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Keeps the monthly partitions of {@code comments} and {@code ticket_events} in shape.
+ *
+ * Partitions are created a few months ahead so inserts never fall into the default
+ * partition, and partitions older than the configured retention are detached. A
+ * detached partition stays in the database as a plain table and can be archived,
+ * dropped or attached again by hand.
+ */
+@Service
+public class PartitionMaintenanceService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PartitionMaintenanceService.class);
+
+    private static final DateTimeFormatter SUFFIX_FORMAT = DateTimeFormatter.ofPattern("yyyyMM");
+    private static final Pattern PARTITION_NAME = Pattern.compile("^(.+)_p(\\d{6})$");
+
+    private static final String LIST_PARTITIONS_SQL =
+        "SELECT c.relname FROM pg_inherits i " +
+        "JOIN pg_class c ON c.oid = i.inhrelid " +
+        "WHERE i.inhparent = ?::regclass ORDER BY c.relname";
+
+    private static final String DEFAULT_PARTITION_ROWS_SQL =
+        "SELECT COUNT(*) FROM ONLY %s_default";
+
+    @Value("${partitioning.enabled:true}")
+    private boolean enabled;
+
+    @Value("${partitioning.months-ahead:3}")
+    private int monthsAhead;
+
+    @Value("${partitioning.retention-months.comments:0}")
+    private int commentRetentionMonths;
+
+    @Value("${partitioning.retention-months.ticket-events:0}")
+    private int ticketEventRetentionMonths;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private volatile LocalDateTime lastRunAt;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        maintainPartitions();
+    }
+
+    @Scheduled(cron = "${partitioning.cron:0 15 3 * * *}")
+    public void maintainPartitions() {
+        if (!enabled) {
+            return;
+        }
+        maintain("comments", commentRetentionMonths);
+        maintain("ticket_events", ticketEventRetentionMonths);
+        lastRunAt = LocalDateTime.now();
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("lastRunAt", lastRunAt);
+        if (enabled) {
+            stats.put("comments", describe("comments"));
+            stats.put("ticketEvents", describe("ticket_events"));
+        }
+        return stats;
+    }
+
+    // Helper methods
+    private void maintain(String table, int retentionMonths) {
+        YearMonth current = YearMonth.now(ZoneOffset.UTC);
+        try {
+            for (int i = 0; i <= monthsAhead; i++) {
+                YearMonth month = current.plusMonths(i);
+                jdbcTemplate.queryForObject("SELECT create_monthly_partition(?, ?::date)", String.class,
+                    table, month.atDay(1).toString());
+            }
+
+            // Retention 0 keeps every partition attached
+            if (retentionMonths > 0) {
+                YearMonth oldestKept = current.minusMonths(retentionMonths);
+                for (String partition : listPartitions(table)) {
+                    YearMonth month = partitionMonth(table, partition);
+                    if (month != null && month.isBefore(oldestKept)) {
+                        jdbcTemplate.execute(String.format("ALTER TABLE %s DETACH PARTITION %s", table, partition));
+                        logger.info("Detached partition {} from {}", partition, table);
+                    }
+                }
+            }
+        } catch (DataAccessException e) {
+            logger.error("Partition maintenance for {} failed: {}", table, e.getMessage());
+        }
+    }
+
+    private Map<String, Object> describe(String table) {
+        Map<String, Object> info = new LinkedHashMap<>();
+        try {
+            List<String> months = new ArrayList<>();
+            for (String partition : listPartitions(table)) {
+                YearMonth month = partitionMonth(table, partition);
+                if (month != null) {
+                    months.add(month.toString());
+                }
+            }
+            info.put("partitions", months.size());
+            info.put("oldest", months.isEmpty() ? null : months.get(0));
+            info.put("newest", months.isEmpty() ? null : months.get(months.size() - 1));
+            // Rows here mean a month was missing when they were written
+            info.put("defaultPartitionRows",
+                jdbcTemplate.queryForObject(String.format(DEFAULT_PARTITION_ROWS_SQL, table), Long.class));
+        } catch (DataAccessException e) {
+            info.put("error", e.getMessage());
+        }
+        return info;
+    }
+
+    private List<String> listPartitions(String table) {
+        return jdbcTemplate.queryForList(LIST_PARTITIONS_SQL, String.class, table);
+    }
+
+    private YearMonth partitionMonth(String table, String partition) {
+        Matcher matcher = PARTITION_NAME.matcher(partition);
+        if (!matcher.matches() || !matcher.group(1).equals(table)) {
+            return null;
+        }
+        return YearMonth.parse(matcher.group(2), SUFFIX_FORMAT);
+    }
+}
@@ -0,0 +1,200 @@
+package com.ticketsystem.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.ticketsystem.exception.StorageQuotaExceededException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import jakarta.annotation.PostConstruct;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Attachment storage totals and quotas, backed by the trigger-maintained
+ * {@code storage_usage} table.
+ *
+ * Per-user and per-ticket byte counts are cached as atomics that this node adjusts on
+ * commit, so the check made before an upload streams costs no query. Entries expire to
+ * pick up changes made by other nodes and by cascading deletes. The cached check can be
+ * behind; the authoritative check runs on the counter rows inside the insert transaction,
+ * after the trigger has locked and updated them.
+ */
+@Service
+public class StorageUsageService {
+
+    private static final Logger logger = LoggerFactory.getLogger(StorageUsageService.class);
+
+    private static final String USER = "USER";
+    private static final String TICKET = "TICKET";
+
+    @Value("${storage.quota.per-user-bytes:53687091200}")
+    private long perUserQuota;
+
+    @Value("${storage.quota.per-ticket-bytes:21474836480}")
+    private long perTicketQuota;
+
+    @Value("${storage.cache.max-size:10000}")
+    private long cacheMaxSize;
+
+    @Value("${storage.cache.ttl-seconds:60}")
+    private long cacheTtlSeconds;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Cache<String, AtomicLong> usage;
+
+    // Totals over every user; refreshed from the table and adjusted between refreshes
+    private final AtomicLong totalBytes = new AtomicLong();
+    private final AtomicLong totalAttachments = new AtomicLong();
+    private volatile long refreshedAt;
+
+    private final AtomicLong rejectedBeforeUpload = new AtomicLong();
+    private final AtomicLong rejectedOnCommit = new AtomicLong();
+
+    @PostConstruct
+    void init() {
+        usage = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfterWrite(Duration.ofSeconds(cacheTtlSeconds))
+                .build();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        refreshTotals();
+    }
+
+    // One row per user, never per attachment
+    @Scheduled(fixedDelayString = "${storage.totals-refresh-ms:60000}")
+    public void refreshTotals() {
+        try {
+            jdbcTemplate.query(
+                "SELECT COALESCE(SUM(bytes), 0) AS bytes, COALESCE(SUM(attachment_count), 0) AS attachments " +
+                "FROM storage_usage WHERE scope = 'USER'",
+                rs -> {
+                    totalBytes.set(rs.getLong("bytes"));
+                    totalAttachments.set(rs.getLong("attachments"));
+                });
+            refreshedAt = System.currentTimeMillis();
+        } catch (DataAccessException e) {
+            logger.error("Failed to refresh storage totals: {}", e.getMessage());
+        }
+    }
+
+    public long getTotalBytes() {
+        return totalBytes.get();
+    }
+
+    /**
+     * Rejects an upload that would go over a quota, before any of it is read. With an
+     * unknown length only an already exhausted quota is caught here.
+     */
+    public void checkQuota(UUID userId, UUID ticketId, long incomingBytes) {
+        long incoming = Math.max(incomingBytes, 0);
+        if (exceeds(cached(USER, userId), incoming, perUserQuota)) {
+            rejectedBeforeUpload.incrementAndGet();
+            throw quotaExceeded("user", userId);
+        }
+        if (exceeds(cached(TICKET, ticketId), incoming, perTicketQuota)) {
+            rejectedBeforeUpload.incrementAndGet();
+            throw quotaExceeded("ticket", ticketId);
+        }
+    }
+
+    /**
+     * Re-checks the quotas against the counter rows once the attachment row is inserted, and
+     * counts the upload locally after commit. Must run in the insert transaction.
+     */
+    public void enforceQuotaAndRecord(UUID userId, UUID ticketId, long size) {
+        if (exceeds(current(USER, userId), 0, perUserQuota)) {
+            rejectedOnCommit.incrementAndGet();
+            throw quotaExceeded("user", userId);
+        }
+        if (exceeds(current(TICKET, ticketId), 0, perTicketQuota)) {
+            rejectedOnCommit.incrementAndGet();
+            throw quotaExceeded("ticket", ticketId);
+        }
+        adjustAfterCommit(userId, ticketId, size, 1);
+    }
+
+    public void releaseAfterCommit(UUID userId, UUID ticketId, long size) {
+        adjustAfterCommit(userId, ticketId, -size, -1);
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("totalBytes", totalBytes.get());
+        stats.put("totalAttachments", totalAttachments.get());
+        stats.put("totalsRefreshedAt", refreshedAt);
+        stats.put("perUserQuotaBytes", perUserQuota);
+        stats.put("perTicketQuotaBytes", perTicketQuota);
+        stats.put("cachedCounters", usage.estimatedSize());
+        stats.put("rejectedBeforeUpload", rejectedBeforeUpload.get());
+        stats.put("rejectedOnCommit", rejectedOnCommit.get());
+        return stats;
+    }
+
+    // Helper methods
+    // A quota of 0 means unlimited
+    private boolean exceeds(long used, long incoming, long quota) {
+        return quota > 0 && used + incoming > quota;
+    }
+
+    private StorageQuotaExceededException quotaExceeded(String owner, UUID ownerId) {
+        logger.info("Storage quota exceeded for {} {}", owner, ownerId);
+        return new StorageQuotaExceededException("Attachment storage quota exceeded for this " + owner);
+    }
+
+    // Loaded outside the cache's compute lock, as in UserPrincipalCache
+    private long cached(String scope, UUID ownerId) {
+        String key = scope + ":" + ownerId;
+        AtomicLong counter = usage.getIfPresent(key);
+        if (counter == null) {
+            counter = new AtomicLong(current(scope, ownerId));
+            usage.put(key, counter);
+        }
+        return counter.get();
+    }
+
+    private long current(String scope, UUID ownerId) {
+        List<Long> bytes = jdbcTemplate.queryForList(
+            "SELECT bytes FROM storage_usage WHERE scope = ? AND owner_id = ?", Long.class, scope, ownerId);
+        return bytes.isEmpty() ? 0L : bytes.get(0);
+    }
+
+    private void adjustAfterCommit(UUID userId, UUID ticketId, long bytes, int attachments) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                adjustCached(USER, userId, bytes);
+                adjustCached(TICKET, ticketId, bytes);
+                totalBytes.addAndGet(bytes);
+                totalAttachments.addAndGet(attachments);
+            }
+        });
+    }
+
+    // Counters that are not cached are left alone; the next read loads the committed value
+    private void adjustCached(String scope, UUID ownerId, long bytes) {
+        AtomicLong counter = usage.getIfPresent(scope + ":" + ownerId);
+        if (counter != null) {
+            counter.addAndGet(bytes);
+        }
+    }
+}
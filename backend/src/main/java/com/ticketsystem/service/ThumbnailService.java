@@ -0,0 +1,236 @@
+package com.ticketsystem.service;
+
+import com.ticketsystem.exception.ServiceUnavailableException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Generates JPEG thumbnails for image blobs on a small CPU-bound pool.
+ *
+ * Thumbnails are keyed by content hash and stored beside the blob, so an image attached
+ * to many tickets is scaled once. Generation is queued after an upload commits; a request
+ * for a thumbnail that is not there yet waits briefly for it to be made. Large sources are
+ * subsampled while decoding so memory stays close to the thumbnail's own size.
+ */
+@Service
+public class ThumbnailService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ThumbnailService.class);
+
+    public static final String THUMBNAIL_SUFFIX = ".thumb.jpg";
+
+    @Value("${thumbnails.size:256}")
+    private int size;
+
+    @Value("${thumbnails.threads:2}")
+    private int threads;
+
+    @Value("${thumbnails.queue-capacity:200}")
+    private int queueCapacity;
+
+    @Value("${thumbnails.max-source-pixels:50000000}")
+    private long maxSourcePixels;
+
+    @Value("${thumbnails.wait-ms:3000}")
+    private long waitMs;
+
+    @Autowired
+    private AttachmentStorage attachmentStorage;
+
+    private ThreadPoolExecutor executor;
+    private final Map<String, Future<Boolean>> pending = new ConcurrentHashMap<>();
+
+    private final AtomicLong generated = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong totalNanos = new AtomicLong();
+
+    @PostConstruct
+    void init() {
+        executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity), new CustomizableThreadFactory("thumbnail-"),
+            new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @PreDestroy
+    void stop() {
+        executor.shutdownNow();
+    }
+
+    public static boolean supports(String mimeType) {
+        return mimeType != null && mimeType.startsWith("image/");
+    }
+
+    public static String thumbnailPath(String hash) {
+        return BlobStore.blobPath(hash) + THUMBNAIL_SUFFIX;
+    }
+
+    // Queues generation; a full queue is fine since the thumbnail is made on first request instead
+    public void generateAsync(String hash) {
+        try {
+            submit(hash);
+        } catch (ServiceUnavailableException e) {
+            logger.debug("Thumbnail queue full, {} will be generated on demand", hash);
+        }
+    }
+
+    public Optional<Path> getThumbnail(String hash) {
+        Path thumbnail = attachmentStorage.resolve(thumbnailPath(hash));
+        if (Files.exists(thumbnail)) {
+            return Optional.of(thumbnail);
+        }
+
+        Future<Boolean> future = submit(hash);
+        try {
+            return Boolean.TRUE.equals(future.get(waitMs, TimeUnit.MILLISECONDS)) ? Optional.of(thumbnail) : Optional.empty();
+        } catch (TimeoutException e) {
+            throw new ServiceUnavailableException("Thumbnail is still being generated, please retry shortly");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceUnavailableException("Interrupted while waiting for thumbnail");
+        } catch (ExecutionException e) {
+            return Optional.empty();
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        long done = generated.get();
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("size", size);
+        stats.put("threads", threads);
+        stats.put("queued", executor.getQueue().size());
+        stats.put("generated", done);
+        stats.put("failed", failed.get());
+        stats.put("rejected", rejected.get());
+        stats.put("avgGenerationMs", done > 0 ? totalNanos.get() / done / 1_000_000.0 : 0.0);
+        return stats;
+    }
+
+    // Helper methods
+    // Concurrent requests for the same thumbnail share one task
+    private Future<Boolean> submit(String hash) {
+        try {
+            return pending.computeIfAbsent(hash, h -> executor.submit(() -> {
+                try {
+                    return generate(h);
+                } finally {
+                    pending.remove(h);
+                }
+            }));
+        } catch (RejectedExecutionException e) {
+            rejected.incrementAndGet();
+            throw new ServiceUnavailableException("Too many thumbnails queued, please retry shortly");
+        }
+    }
+
+    private boolean generate(String hash) {
+        Path target = attachmentStorage.resolve(thumbnailPath(hash));
+        if (Files.exists(target)) {
+            return true;
+        }
+        Path source = attachmentStorage.resolve(BlobStore.blobPath(hash));
+        long startedAt = System.nanoTime();
+        try {
+            BufferedImage image = readScaledDown(source);
+            if (image == null) {
+                failed.incrementAndGet();
+                return false;
+            }
+
+            Path temp = Files.createTempFile(target.getParent(), hash, ".part");
+            try {
+                ImageIO.write(scale(image), "jpg", temp.toFile());
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+            generated.incrementAndGet();
+            totalNanos.addAndGet(System.nanoTime() - startedAt);
+            return true;
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Failed to generate thumbnail for {}: {}", hash, e.getMessage());
+            failed.incrementAndGet();
+            return false;
+        }
+    }
+
+    // Null when the format is not readable or the image is too large to decode safely
+    private BufferedImage readScaledDown(Path source) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(source.toFile())) {
+            if (input == null) {
+                return null;
+            }
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                if ((long) width * height > maxSourcePixels) {
+                    return null;
+                }
+                // Decode every n-th pixel so a large photo never exists at full size in memory
+                int step = Math.max(1, Math.min(width, height) / (size * 2));
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(step, step, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private BufferedImage scale(BufferedImage image) {
+        double ratio = Math.min(1.0, (double) size / Math.max(image.getWidth(), image.getHeight()));
+        int width = Math.max(1, (int) Math.round(image.getWidth() * ratio));
+        int height = Math.max(1, (int) Math.round(image.getHeight() * ratio));
+
+        BufferedImage thumbnail = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = thumbnail.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            // JPEG has no alpha, so transparent areas become white
+            graphics.setColor(Color.WHITE);
+            graphics.fillRect(0, 0, width, height);
+            graphics.drawImage(image, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return thumbnail;
+    }
+}
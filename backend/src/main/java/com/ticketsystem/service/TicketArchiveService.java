@@ -0,0 +1,369 @@
+package com.ticketsystem.service;
+
+import com.ticketsystem.entity.*;
+import com.ticketsystem.exception.ResourceNotFoundException;
+import com.ticketsystem.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Array;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Moves long-closed tickets and everything hanging off them into the {@code archived_*}
+ * tables, and reads them back for the ticket lookups that miss the hot tables.
+ *
+ * Tickets are moved in chunks, one transaction per chunk, with their ids intact. Archiving
+ * leaves a change feed tombstone for each ticket, and a restored ticket and its comments
+ * take fresh change sequence numbers, so feed clients drop and re-add them. Archived
+ * tickets are read-only; restoring one moves it back.
+ * Rows come back as detached entities flagged {@link Ticket#isArchived()} and must
+ * never be saved.
+ */
+@Service
+public class TicketArchiveService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TicketArchiveService.class);
+
+    private static final String TICKET_COLUMNS =
+        "id, subject, description, status, priority, created_by_id, assigned_to_id, " +
+        "created_at, updated_at, resolved_at, closed_at, change_seq";
+    private static final String COMMENT_COLUMNS =
+        "id, content, ticket_id, author_id, created_at, updated_at, change_seq";
+    private static final String ATTACHMENT_COLUMNS =
+        "id, file_name, original_file_name, file_size, mime_type, file_path, content_hash, content_encoding, ticket_id, uploaded_by_id, created_at";
+    private static final String RATING_COLUMNS =
+        "id, rating, feedback, ticket_id, rated_by_id, created_at";
+    private static final String EVENT_COLUMNS =
+        "id, ticket_id, event_type, actor_id, old_value, new_value, created_at";
+
+    // Hot table, archive table, columns, ticket key. Parents come first.
+    private static final String[][] TABLES = {
+        {"tickets", "archived_tickets", TICKET_COLUMNS, "id"},
+        {"comments", "archived_comments", COMMENT_COLUMNS, "ticket_id"},
+        {"attachments", "archived_attachments", ATTACHMENT_COLUMNS, "ticket_id"},
+        {"ticket_ratings", "archived_ticket_ratings", RATING_COLUMNS, "ticket_id"},
+        {"ticket_events", "archived_ticket_events", EVENT_COLUMNS, "ticket_id"}
+    };
+
+    private static final String INSERT_TOMBSTONES_SQL =
+        "INSERT INTO change_tombstones (entity_type, entity_id, ticket_id, created_by_id, assigned_to_id) " +
+        "SELECT '" + ChangeTombstone.TICKET + "', id, id, created_by_id, assigned_to_id FROM tickets WHERE id = ANY(?)";
+
+    private static final String SELECT_CANDIDATES_SQL =
+        "SELECT id FROM tickets WHERE status = 'CLOSED' AND closed_at < ? " +
+        "ORDER BY closed_at LIMIT ? FOR UPDATE SKIP LOCKED";
+
+    @Value("${archive.enabled:true}")
+    private boolean enabled;
+
+    @Value("${archive.closed-days:90}")
+    private int closedDays;
+
+    @Value("${archive.batch-size:500}")
+    private int batchSize;
+
+    @Value("${archive.max-batches-per-run:20}")
+    private int maxBatchesPerRun;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private final AtomicLong archivedTickets = new AtomicLong();
+    private final AtomicLong restoredTickets = new AtomicLong();
+    private final AtomicLong readThroughs = new AtomicLong();
+    private volatile LocalDateTime lastRunAt;
+
+    @Scheduled(cron = "${archive.cron:0 30 2 * * *}")
+    public void archiveClosedTickets() {
+        if (enabled) {
+            runArchival();
+        }
+    }
+
+    public int runArchival() {
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(closedDays);
+        int total = 0;
+        for (int i = 0; i < maxBatchesPerRun; i++) {
+            Integer moved = transactionTemplate.execute(status -> archiveBatch(cutoff));
+            total += moved != null ? moved : 0;
+            if (moved == null || moved < batchSize) {
+                break;
+            }
+        }
+        lastRunAt = LocalDateTime.now();
+        if (total > 0) {
+            logger.info("Archived {} tickets closed before {}", total, cutoff);
+        }
+        return total;
+    }
+
+    public void restoreTicket(UUID id) {
+        transactionTemplate.executeWithoutResult(status -> {
+            List<UUID> ids = jdbcTemplate.queryForList(
+                "SELECT id FROM archived_tickets WHERE id = ? FOR UPDATE", UUID.class, id);
+            if (ids.isEmpty()) {
+                throw new ResourceNotFoundException("Archived ticket not found with id: " + id);
+            }
+            move(ids, false);
+        });
+        restoredTickets.incrementAndGet();
+        logger.info("Restored archived ticket {}", id);
+    }
+
+    public boolean isArchived(UUID id) {
+        Integer count = jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM archived_tickets WHERE id = ?", Integer.class, id);
+        return count != null && count > 0;
+    }
+
+    public Optional<Ticket> findArchivedTicket(UUID id) {
+        List<Ticket> tickets = jdbcTemplate.query(
+            "SELECT " + TICKET_COLUMNS + " FROM archived_tickets WHERE id = ?", this::mapTicket, id);
+        if (tickets.isEmpty()) {
+            return Optional.empty();
+        }
+        readThroughs.incrementAndGet();
+
+        Ticket ticket = tickets.get(0);
+        List<Comment> comments = jdbcTemplate.query(
+            "SELECT " + COMMENT_COLUMNS + " FROM archived_comments WHERE ticket_id = ? ORDER BY created_at",
+            (rs, rowNum) -> mapComment(rs, ticket), id);
+        List<Attachment> attachments = jdbcTemplate.query(
+            "SELECT " + ATTACHMENT_COLUMNS + " FROM archived_attachments WHERE ticket_id = ? ORDER BY created_at DESC",
+            (rs, rowNum) -> mapAttachment(rs, ticket), id);
+        List<TicketRating> ratings = jdbcTemplate.query(
+            "SELECT " + RATING_COLUMNS + " FROM archived_ticket_ratings WHERE ticket_id = ?",
+            (rs, rowNum) -> mapRating(rs, ticket), id);
+
+        ticket.setComments(new ArrayList<>(comments));
+        ticket.setAttachments(new ArrayList<>(attachments));
+        ticket.setRating(ratings.isEmpty() ? null : ratings.get(0));
+        resolveUsers(List.of(ticket));
+        return Optional.of(ticket);
+    }
+
+    // Loads the whole archived ticket so the attachment carries its ticket and users
+    public Optional<Attachment> findArchivedAttachment(UUID id) {
+        List<UUID> ticketIds = jdbcTemplate.queryForList(
+            "SELECT ticket_id FROM archived_attachments WHERE id = ?", UUID.class, id);
+        if (ticketIds.isEmpty()) {
+            return Optional.empty();
+        }
+        return findArchivedTicket(ticketIds.get(0))
+            .flatMap(ticket -> ticket.getAttachments().stream()
+                .filter(attachment -> id.equals(attachment.getId()))
+                .findFirst());
+    }
+
+    public List<TicketEvent> findArchivedEvents(UUID ticketId) {
+        return jdbcTemplate.query(
+            "SELECT " + EVENT_COLUMNS + " FROM archived_ticket_events WHERE ticket_id = ? ORDER BY created_at, id",
+            this::mapEvent, ticketId);
+    }
+
+    // Summaries only; children are loaded when a single ticket is read
+    public Page<Ticket> getArchivedTicketsForUser(User user, Pageable pageable) {
+        boolean all = user.getRole().hasSupportPrivileges();
+        String where = all ? "" : " WHERE created_by_id = ? OR assigned_to_id = ?";
+        Object[] filter = all ? new Object[0] : new Object[] {user.getId(), user.getId()};
+
+        Long total = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM archived_tickets" + where, Long.class, filter);
+        List<Object> args = new ArrayList<>(Arrays.asList(filter));
+        args.add(pageable.getPageSize());
+        args.add(pageable.getOffset());
+        List<Ticket> tickets = jdbcTemplate.query(
+            "SELECT " + TICKET_COLUMNS + " FROM archived_tickets" + where + " ORDER BY closed_at DESC, id LIMIT ? OFFSET ?",
+            this::mapTicket, args.toArray());
+
+        resolveUsers(tickets);
+        return new PageImpl<>(tickets, pageable, total != null ? total : 0);
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("closedDays", closedDays);
+        stats.put("archivedTickets", jdbcTemplate.queryForObject("SELECT COUNT(*) FROM archived_tickets", Long.class));
+        stats.put("archivedThisProcess", archivedTickets.get());
+        stats.put("restoredThisProcess", restoredTickets.get());
+        stats.put("readThroughs", readThroughs.get());
+        stats.put("lastRunAt", lastRunAt);
+        return stats;
+    }
+
+    // Helper methods
+    private int archiveBatch(LocalDateTime cutoff) {
+        List<UUID> ids = jdbcTemplate.queryForList(SELECT_CANDIDATES_SQL, UUID.class, Timestamp.valueOf(cutoff), batchSize);
+        if (!ids.isEmpty()) {
+            move(ids, true);
+            archivedTickets.addAndGet(ids.size());
+        }
+        return ids.size();
+    }
+
+    // Copies the tickets and their children across, then deletes the source tickets;
+    // foreign keys cascade the delete to the source children.
+    private void move(List<UUID> ids, boolean toArchive) {
+        for (String[] table : TABLES) {
+            String from = toArchive ? table[0] : table[1];
+            String to = toArchive ? table[1] : table[0];
+            // Restored rows take a fresh change_seq from the column default; the archived
+            // value is below every feed cursor that saw the tombstone
+            String columns = toArchive ? table[2] : table[2].replace(", change_seq", "");
+            updateWithIds(String.format("INSERT INTO %s (%s) SELECT %s FROM %s WHERE %s = ANY(?)",
+                to, columns, columns, from, table[3]), ids);
+        }
+        if (toArchive) {
+            updateWithIds(INSERT_TOMBSTONES_SQL, ids);
+        }
+        updateWithIds(String.format("DELETE FROM %s WHERE id = ANY(?)", toArchive ? "tickets" : "archived_tickets"), ids);
+    }
+
+    private void updateWithIds(String sql, List<UUID> ids) {
+        jdbcTemplate.update(sql, ps -> {
+            Array array = ps.getConnection().createArrayOf("uuid", ids.toArray());
+            ps.setArray(1, array);
+        });
+    }
+
+    // Entities are built with stub users and resolved in one lookup afterwards
+    private void resolveUsers(List<Ticket> tickets) {
+        Set<UUID> ids = new HashSet<>();
+        for (Ticket ticket : tickets) {
+            ids.add(ticket.getCreatedBy().getId());
+            if (ticket.getAssignedTo() != null) {
+                ids.add(ticket.getAssignedTo().getId());
+            }
+            ticket.getComments().forEach(comment -> ids.add(comment.getAuthor().getId()));
+            ticket.getAttachments().forEach(attachment -> ids.add(attachment.getUploadedBy().getId()));
+            if (ticket.getRating() != null) {
+                ids.add(ticket.getRating().getRatedBy().getId());
+            }
+        }
+        if (ids.isEmpty()) {
+            return;
+        }
+
+        Map<UUID, User> users = userRepository.findAllById(ids).stream()
+            .collect(Collectors.toMap(User::getId, Function.identity()));
+        tickets.forEach(ticket -> resolveUsers(ticket, users));
+    }
+
+    private void resolveUsers(Ticket ticket, Map<UUID, User> users) {
+        ticket.setCreatedBy(users.getOrDefault(ticket.getCreatedBy().getId(), ticket.getCreatedBy()));
+        if (ticket.getAssignedTo() != null) {
+            ticket.setAssignedTo(users.getOrDefault(ticket.getAssignedTo().getId(), ticket.getAssignedTo()));
+        }
+        ticket.getComments().forEach(comment ->
+            comment.setAuthor(users.getOrDefault(comment.getAuthor().getId(), comment.getAuthor())));
+        ticket.getAttachments().forEach(attachment ->
+            attachment.setUploadedBy(users.getOrDefault(attachment.getUploadedBy().getId(), attachment.getUploadedBy())));
+        if (ticket.getRating() != null) {
+            ticket.getRating().setRatedBy(users.getOrDefault(ticket.getRating().getRatedBy().getId(),
+                ticket.getRating().getRatedBy()));
+        }
+    }
+
+    private Ticket mapTicket(ResultSet rs, int rowNum) throws SQLException {
+        Ticket ticket = new Ticket();
+        ticket.setId(rs.getObject("id", UUID.class));
+        ticket.setSubject(rs.getString("subject"));
+        ticket.setDescription(rs.getString("description"));
+        ticket.setStatus(TicketStatus.valueOf(rs.getString("status")));
+        ticket.setPriority(TicketPriority.valueOf(rs.getString("priority")));
+        ticket.setCreatedBy(userStub(rs.getObject("created_by_id", UUID.class)));
+        ticket.setAssignedTo(userStub(rs.getObject("assigned_to_id", UUID.class)));
+        ticket.setCreatedAt(toLocalDateTime(rs.getTimestamp("created_at")));
+        ticket.setUpdatedAt(toLocalDateTime(rs.getTimestamp("updated_at")));
+        ticket.setResolvedAt(toLocalDateTime(rs.getTimestamp("resolved_at")));
+        ticket.setClosedAt(toLocalDateTime(rs.getTimestamp("closed_at")));
+        ticket.setArchived(true);
+        return ticket;
+    }
+
+    private Comment mapComment(ResultSet rs, Ticket ticket) throws SQLException {
+        Comment comment = new Comment();
+        comment.setId(rs.getObject("id", UUID.class));
+        comment.setContent(rs.getString("content"));
+        comment.setTicket(ticket);
+        comment.setAuthor(userStub(rs.getObject("author_id", UUID.class)));
+        comment.setCreatedAt(toLocalDateTime(rs.getTimestamp("created_at")));
+        comment.setUpdatedAt(toLocalDateTime(rs.getTimestamp("updated_at")));
+        return comment;
+    }
+
+    private Attachment mapAttachment(ResultSet rs, Ticket ticket) throws SQLException {
+        Attachment attachment = new Attachment();
+        attachment.setId(rs.getObject("id", UUID.class));
+        attachment.setFileName(rs.getString("file_name"));
+        attachment.setOriginalFileName(rs.getString("original_file_name"));
+        attachment.setFileSize(rs.getLong("file_size"));
+        attachment.setMimeType(rs.getString("mime_type"));
+        attachment.setFilePath(rs.getString("file_path"));
+        attachment.setContentHash(rs.getString("content_hash"));
+        attachment.setContentEncoding(rs.getString("content_encoding"));
+        attachment.setTicket(ticket);
+        attachment.setUploadedBy(userStub(rs.getObject("uploaded_by_id", UUID.class)));
+        attachment.setCreatedAt(toLocalDateTime(rs.getTimestamp("created_at")));
+        return attachment;
+    }
+
+    private TicketRating mapRating(ResultSet rs, Ticket ticket) throws SQLException {
+        TicketRating rating = new TicketRating();
+        rating.setId(rs.getObject("id", UUID.class));
+        rating.setRating(rs.getInt("rating"));
+        rating.setFeedback(rs.getString("feedback"));
+        rating.setTicket(ticket);
+        rating.setRatedBy(userStub(rs.getObject("rated_by_id", UUID.class)));
+        rating.setCreatedAt(toLocalDateTime(rs.getTimestamp("created_at")));
+        return rating;
+    }
+
+    private TicketEvent mapEvent(ResultSet rs, int rowNum) throws SQLException {
+        TicketEvent event = new TicketEvent();
+        event.setId(rs.getLong("id"));
+        event.setTicketId(rs.getObject("ticket_id", UUID.class));
+        event.setEventType(TicketEventType.valueOf(rs.getString("event_type")));
+        event.setActorId(rs.getObject("actor_id", UUID.class));
+        event.setOldValue(rs.getString("old_value"));
+        event.setNewValue(rs.getString("new_value"));
+        event.setCreatedAt(toLocalDateTime(rs.getTimestamp("created_at")));
+        return event;
+    }
+
+    private User userStub(UUID id) {
+        if (id == null) {
+            return null;
+        }
+        User user = new User();
+        user.setId(id);
+        return user;
+    }
+
+    private LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toLocalDateTime() : null;
+    }
+}
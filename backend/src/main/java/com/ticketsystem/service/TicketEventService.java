@@ -0,0 +1,118 @@
+package com.ticketsystem.service;
+
+import com.ticketsystem.dto.TicketEventDto;
+import com.ticketsystem.dto.UserDto;
+import com.ticketsystem.entity.*;
+import com.ticketsystem.repository.TicketEventRepository;
+import com.ticketsystem.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Renders the audit timeline of a ticket from {@code ticket_events}.
+ *
+ * Events only store ids and enum names; every user they reference is resolved with a
+ * single lookup so the timeline always shows current names.
+ */
+@Service
+@Transactional(readOnly = true)
+public class TicketEventService {
+
+    @Autowired
+    private TicketEventRepository ticketEventRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TicketService ticketService;
+
+    @Autowired
+    private TicketArchiveService ticketArchiveService;
+
+    public List<TicketEventDto> getTimeline(UUID ticketId, User user) {
+        Ticket ticket = ticketService.getTicketByIdWithAccess(ticketId, user);
+
+        List<TicketEvent> events = ticket.isArchived()
+            ? ticketArchiveService.findArchivedEvents(ticketId)
+            : ticketEventRepository.findByTicketIdAndCreatedAtGreaterThanEqualOrderByCreatedAtAscIdAsc(
+                ticketId, ticket.getActivityLowerBound());
+        Map<UUID, User> users = loadReferencedUsers(events);
+
+        List<TicketEventDto> timeline = new ArrayList<>(events.size());
+        for (TicketEvent event : events) {
+            User actor = event.getActorId() != null ? users.get(event.getActorId()) : null;
+            timeline.add(TicketEventDto.fromEntity(event,
+                actor != null ? UserDto.fromEntity(actor) : null,
+                render(event, actor, users)));
+        }
+        return timeline;
+    }
+
+    // Helper methods
+    private Map<UUID, User> loadReferencedUsers(List<TicketEvent> events) {
+        Set<UUID> ids = new HashSet<>();
+        for (TicketEvent event : events) {
+            if (event.getActorId() != null) {
+                ids.add(event.getActorId());
+            }
+            if (event.getEventType().referencesUsers()) {
+                addUserId(ids, event.getOldValue());
+                addUserId(ids, event.getNewValue());
+            }
+        }
+        if (ids.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        return userRepository.findAllById(ids).stream()
+            .collect(Collectors.toMap(User::getId, Function.identity()));
+    }
+
+    private void addUserId(Set<UUID> ids, String value) {
+        if (value != null) {
+            ids.add(UUID.fromString(value));
+        }
+    }
+
+    private String render(TicketEvent event, User actor, Map<UUID, User> users) {
+        String by = actor != null ? " by " + actor.getFullName() : "";
+        String oldValue = event.getOldValue();
+        String newValue = event.getNewValue();
+
+        switch (event.getEventType()) {
+            case CREATED:
+                return "Ticket created" + by;
+            case SUBJECT_CHANGED:
+                return String.format("Subject changed from \"%s\" to \"%s\"%s", oldValue, newValue, by);
+            case DESCRIPTION_CHANGED:
+                return "Description updated" + by;
+            case PRIORITY_CHANGED:
+                return String.format("Priority changed from %s to %s%s",
+                    TicketPriority.valueOf(oldValue).getDisplayName(),
+                    TicketPriority.valueOf(newValue).getDisplayName(), by);
+            case STATUS_CHANGED:
+                return String.format("Status changed from %s to %s%s",
+                    TicketStatus.valueOf(oldValue).getDisplayName(),
+                    TicketStatus.valueOf(newValue).getDisplayName(), by);
+            case ASSIGNED:
+                return oldValue != null
+                    ? String.format("Ticket reassigned from %s to %s%s", userName(oldValue, users), userName(newValue, users), by)
+                    : String.format("Ticket assigned to %s%s", userName(newValue, users), by);
+            case UNASSIGNED:
+                return String.format("Ticket unassigned from %s%s", userName(oldValue, users), by);
+            case NOTE:
+            default:
+                return newValue;
+        }
+    }
+
+    private String userName(String id, Map<UUID, User> users) {
+        User user = users.get(UUID.fromString(id));
+        return user != null ? user.getFullName() : "a deleted user";
+    }
+}
@@ -3,12 +3,17 @@ package com.ticketsystem.service;
 import com.ticketsystem.dto.CreateTicketRequest;
 import com.ticketsystem.dto.UpdateTicketRequest;
 import com.ticketsystem.entity.*;
+import com.ticketsystem.event.TicketChangeEvent;
+import com.ticketsystem.event.TicketChangeType;
+import com.ticketsystem.event.TicketFieldChange;
 import com.ticketsystem.exception.ResourceNotFoundException;
 import com.ticketsystem.exception.UnauthorizedOperationException;
+import com.ticketsystem.repository.ChangeTombstoneRepository;
 import com.ticketsystem.repository.TicketRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -16,6 +21,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 
@@ -28,11 +34,17 @@ public class TicketService {
     @Autowired
     private TicketRepository ticketRepository;
 
+    @Autowired
+    private ChangeTombstoneRepository changeTombstoneRepository;
+
     @Autowired
     private UserService userService;
 
     @Autowired
-    private CommentService commentService;
+    private TicketArchiveService ticketArchiveService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
 
     public Ticket createTicket(CreateTicketRequest request, User createdBy) {
         Ticket ticket = new Ticket();
@@ -44,16 +56,18 @@ public class TicketService {
 
         Ticket savedTicket = ticketRepository.save(ticket);
         
-        // Add system comment for ticket creation
-        commentService.addSystemComment(savedTicket, 
-            String.format("[SYSTEM] Ticket created by %s", createdBy.getFullName()));
+        // Audit log entry for ticket creation is written by the outbox relay
+        eventPublisher.publishEvent(TicketChangeEvent.forTicket(TicketChangeType.TICKET_CREATED, savedTicket, createdBy,
+            List.of(TicketFieldChange.of(TicketEventType.CREATED, null, savedTicket.getStatus()))));
         
         logger.info("Created new ticket with ID: {} by user: {}", savedTicket.getId(), createdBy.getEmail());
         return savedTicket;
     }
 
+    // Falls through to the archive when the ticket is no longer in the hot table
     public Ticket getTicketById(UUID id) {
         return ticketRepository.findById(id)
+                .or(() -> ticketArchiveService.findArchivedTicket(id))
                 .orElseThrow(() -> new ResourceNotFoundException("Ticket not found with id: " + id));
     }
 
@@ -79,6 +93,10 @@ public class TicketService {
         }
     }
 
+    public Page<Ticket> getArchivedTicketsForUser(User user, Pageable pageable) {
+        return ticketArchiveService.getArchivedTicketsForUser(user, pageable);
+    }
+
     public Page<Ticket> getAssignedTickets(User agent, Pageable pageable) {
         return ticketRepository.findByAssignedTo(agent, pageable);
     }
@@ -98,54 +116,48 @@ public class TicketService {
     }
 
     public Ticket updateTicket(UUID id, UpdateTicketRequest request, User updatedBy) {
-        Ticket ticket = getTicketById(id);
+        Ticket ticket = getActiveTicket(id);
         
         if (!ticket.canBeEditedBy(updatedBy)) {
             throw new UnauthorizedOperationException("You don't have permission to edit this ticket");
         }
 
-        boolean hasChanges = false;
-        StringBuilder changeLog = new StringBuilder("[SYSTEM] Ticket updated by " + updatedBy.getFullName() + ": ");
+        List<TicketFieldChange> changes = new ArrayList<>();
 
         if (request.getSubject() != null && !request.getSubject().equals(ticket.getSubject())) {
+            changes.add(TicketFieldChange.of(TicketEventType.SUBJECT_CHANGED, ticket.getSubject(), request.getSubject()));
             ticket.setSubject(request.getSubject());
-            changeLog.append("Subject changed; ");
-            hasChanges = true;
         }
 
         if (request.getDescription() != null && !request.getDescription().equals(ticket.getDescription())) {
+            // Descriptions are large; the audit log only records that it changed
             ticket.setDescription(request.getDescription());
-            changeLog.append("Description updated; ");
-            hasChanges = true;
+            changes.add(TicketFieldChange.of(TicketEventType.DESCRIPTION_CHANGED, null, null));
         }
 
         if (request.getPriority() != null && !request.getPriority().equals(ticket.getPriority())) {
-            TicketPriority oldPriority = ticket.getPriority();
+            changes.add(TicketFieldChange.of(TicketEventType.PRIORITY_CHANGED, ticket.getPriority(), request.getPriority()));
             ticket.setPriority(request.getPriority());
-            changeLog.append(String.format("Priority changed from %s to %s; ", 
-                oldPriority.getDisplayName(), request.getPriority().getDisplayName()));
-            hasChanges = true;
         }
 
         if (request.getStatus() != null && !request.getStatus().equals(ticket.getStatus())) {
             if (!ticket.canChangeStatus(updatedBy)) {
                 throw new UnauthorizedOperationException("You don't have permission to change ticket status");
             }
-            updateTicketStatus(ticket, request.getStatus(), updatedBy, changeLog);
-            hasChanges = true;
+            updateTicketStatus(ticket, request.getStatus(), changes);
         }
 
         if (request.getAssignedToId() != null) {
             if (!ticket.canBeAssignedBy(updatedBy)) {
                 throw new UnauthorizedOperationException("You don't have permission to assign tickets");
             }
-            assignTicket(ticket, request.getAssignedToId(), updatedBy, changeLog);
-            hasChanges = true;
+            assignTicket(ticket, request.getAssignedToId(), changes);
         }
 
-        if (hasChanges) {
+        if (!changes.isEmpty()) {
             Ticket savedTicket = ticketRepository.save(ticket);
-            commentService.addSystemComment(savedTicket, changeLog.toString());
+            eventPublisher.publishEvent(TicketChangeEvent.forTicket(TicketChangeType.TICKET_UPDATED, savedTicket, updatedBy,
+                changes));
             logger.info("Updated ticket with ID: {} by user: {}", id, updatedBy.getEmail());
             return savedTicket;
         }
@@ -154,7 +166,7 @@ public class TicketService {
     }
 
     public Ticket assignTicket(UUID ticketId, UUID agentId, User assignedBy) {
-        Ticket ticket = getTicketById(ticketId);
+        Ticket ticket = getActiveTicket(ticketId);
         
         if (!ticket.canBeAssignedBy(assignedBy)) {
             throw new UnauthorizedOperationException("You don't have permission to assign tickets");
@@ -165,18 +177,19 @@ public class TicketService {
             throw new IllegalArgumentException("User must be a support agent or admin to be assigned tickets");
         }
 
-        StringBuilder changeLog = new StringBuilder();
-        assignTicket(ticket, agentId, assignedBy, changeLog);
+        List<TicketFieldChange> changes = new ArrayList<>();
+        assignTicket(ticket, agentId, changes);
         
         Ticket savedTicket = ticketRepository.save(ticket);
-        commentService.addSystemComment(savedTicket, changeLog.toString());
+        eventPublisher.publishEvent(TicketChangeEvent.forTicket(TicketChangeType.TICKET_UPDATED, savedTicket, assignedBy,
+            changes));
         
         logger.info("Assigned ticket {} to agent {} by {}", ticketId, agentId, assignedBy.getEmail());
         return savedTicket;
     }
 
     public Ticket unassignTicket(UUID ticketId, User unassignedBy) {
-        Ticket ticket = getTicketById(ticketId);
+        Ticket ticket = getActiveTicket(ticketId);
         
         if (!ticket.canBeAssignedBy(unassignedBy)) {
             throw new UnauthorizedOperationException("You don't have permission to unassign tickets");
@@ -186,46 +199,60 @@ public class TicketService {
             throw new IllegalStateException("Ticket is not assigned to anyone");
         }
 
-        String previousAgent = ticket.getAssignedTo().getFullName();
+        List<TicketFieldChange> changes = new ArrayList<>();
+        TicketStatus oldStatus = ticket.getStatus();
+        changes.add(TicketFieldChange.of(TicketEventType.UNASSIGNED, ticket.getAssignedTo().getId(), null));
         ticket.unassign();
+        recordImplicitStatusChange(ticket, oldStatus, changes);
         
         Ticket savedTicket = ticketRepository.save(ticket);
-        commentService.addSystemComment(savedTicket, 
-            String.format("[SYSTEM] Ticket unassigned from %s by %s", previousAgent, unassignedBy.getFullName()));
+        eventPublisher.publishEvent(TicketChangeEvent.forTicket(TicketChangeType.TICKET_UPDATED, savedTicket, unassignedBy,
+            changes));
         
         logger.info("Unassigned ticket {} by {}", ticketId, unassignedBy.getEmail());
         return savedTicket;
     }
 
     public Ticket updateTicketStatus(UUID ticketId, TicketStatus newStatus, User updatedBy) {
-        Ticket ticket = getTicketById(ticketId);
+        Ticket ticket = getActiveTicket(ticketId);
         
         if (!ticket.canChangeStatus(updatedBy)) {
             throw new UnauthorizedOperationException("You don't have permission to change ticket status");
         }
 
-        StringBuilder changeLog = new StringBuilder();
-        updateTicketStatus(ticket, newStatus, updatedBy, changeLog);
+        List<TicketFieldChange> changes = new ArrayList<>();
+        updateTicketStatus(ticket, newStatus, changes);
         
         Ticket savedTicket = ticketRepository.save(ticket);
-        commentService.addSystemComment(savedTicket, changeLog.toString());
+        eventPublisher.publishEvent(TicketChangeEvent.forTicket(TicketChangeType.TICKET_UPDATED, savedTicket, updatedBy,
+            changes));
         
         logger.info("Updated ticket {} status to {} by {}", ticketId, newStatus, updatedBy.getEmail());
         return savedTicket;
     }
 
     public void deleteTicket(UUID id, User deletedBy) {
-        Ticket ticket = getTicketById(id);
+        Ticket ticket = getActiveTicket(id);
         
         if (!deletedBy.getRole().hasAdminPrivileges()) {
             throw new UnauthorizedOperationException("Only administrators can delete tickets");
         }
 
         ticketRepository.delete(ticket);
+        changeTombstoneRepository.save(ChangeTombstone.forTicket(ticket));
+        eventPublisher.publishEvent(TicketChangeEvent.forTicket(TicketChangeType.TICKET_DELETED, ticket, deletedBy));
         logger.info("Deleted ticket with ID: {} by admin: {}", id, deletedBy.getEmail());
     }
 
     // Helper methods
+    // Writes only go to the hot table; archived tickets have to be restored first
+    private Ticket getActiveTicket(UUID id) {
+        return ticketRepository.findById(id)
+                .orElseThrow(() -> ticketArchiveService.isArchived(id)
+                        ? new IllegalStateException("Ticket " + id + " is archived and read-only")
+                        : new ResourceNotFoundException("Ticket not found with id: " + id));
+    }
+
     private boolean canUserAccessTicket(Ticket ticket, User user) {
         return user.getRole().hasAdminPrivileges() || 
                user.getRole().hasSupportPrivileges() || 
@@ -233,25 +260,28 @@ public class TicketService {
                user.equals(ticket.getAssignedTo());
     }
 
-    private void updateTicketStatus(Ticket ticket, TicketStatus newStatus, User updatedBy, StringBuilder changeLog) {
+    private void updateTicketStatus(Ticket ticket, TicketStatus newStatus, List<TicketFieldChange> changes) {
         TicketStatus oldStatus = ticket.getStatus();
         ticket.updateStatus(newStatus);
-        changeLog.append(String.format("[SYSTEM] Status changed from %s to %s by %s; ", 
-            oldStatus.getDisplayName(), newStatus.getDisplayName(), updatedBy.getFullName()));
+        changes.add(TicketFieldChange.of(TicketEventType.STATUS_CHANGED, oldStatus, newStatus));
     }
 
-    private void assignTicket(Ticket ticket, UUID agentId, User assignedBy, StringBuilder changeLog) {
+    private void assignTicket(Ticket ticket, UUID agentId, List<TicketFieldChange> changes) {
         User agent = userService.getUserById(agentId);
+        TicketStatus oldStatus = ticket.getStatus();
         
-        if (ticket.getAssignedTo() != null) {
-            changeLog.append(String.format("[SYSTEM] Ticket reassigned from %s to %s by %s; ", 
-                ticket.getAssignedTo().getFullName(), agent.getFullName(), assignedBy.getFullName()));
-        } else {
-            changeLog.append(String.format("[SYSTEM] Ticket assigned to %s by %s; ", 
-                agent.getFullName(), assignedBy.getFullName()));
-        }
+        changes.add(TicketFieldChange.of(TicketEventType.ASSIGNED,
+            ticket.getAssignedTo() != null ? ticket.getAssignedTo().getId() : null, agent.getId()));
         
         ticket.assignTo(agent);
+        recordImplicitStatusChange(ticket, oldStatus, changes);
+    }
+
+    // Assigning and unassigning move tickets between OPEN and IN_PROGRESS
+    private void recordImplicitStatusChange(Ticket ticket, TicketStatus oldStatus, List<TicketFieldChange> changes) {
+        if (ticket.getStatus() != oldStatus) {
+            changes.add(TicketFieldChange.of(TicketEventType.STATUS_CHANGED, oldStatus, ticket.getStatus()));
+        }
     }
 
     // Statistics methods
@@ -0,0 +1,440 @@
+package com.ticketsystem.service;
+
+import com.ticketsystem.entity.Attachment;
+import com.ticketsystem.entity.User;
+import com.ticketsystem.exception.ResourceNotFoundException;
+import com.ticketsystem.exception.UnauthorizedOperationException;
+import com.ticketsystem.service.AttachmentStorage.StagedFile;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * Resumable uploads for files too large to send in one request.
+ *
+ * A session preallocates {@code sessions/<id>} at the announced size. Chunks must arrive
+ * in order: each is written at its offset with positional writes and fed to a SHA-256 kept
+ * in memory, so completing the upload needs no second read. If the digest is lost to a
+ * restart, or the next chunk goes to another node, it is rebuilt from the bytes already on
+ * disk. The committed offset in {@code upload_sessions} is the only thing a client has to
+ * trust.
+ *
+ * A chunk is written under a lease on the session row rather than a row lock, so no database
+ * connection is held while the bytes arrive: one short update claims the lease at the current
+ * offset, the writer renews it as it reads, and a second update advances the offset only if
+ * the lease is still its own. A writer that lost its lease stops before writing further.
+ *
+ * Each chunk that lands on a node other than the one that took the previous chunk rereads the
+ * whole prefix, so a load balancer must route a session's chunks to one node (for example
+ * sticky on the session id); round-robin routing makes a large upload quadratic in disk reads.
+ * {@code digestRebuilds} in the stats counts these rereads.
+ */
+@Service
+public class UploadSessionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(UploadSessionService.class);
+
+    public static final String SESSION_DIR = "sessions";
+
+    private static final String SESSION_COLUMNS =
+        "id, ticket_id, user_id, file_name, mime_type, total_size, received_bytes, declared_sha256, expires_at";
+
+    @Value("${file.upload.chunked.max-size:10737418240}")
+    private long maxUploadSize;
+
+    @Value("${file.upload.chunked.max-chunk-size:67108864}")
+    private long maxChunkSize;
+
+    @Value("${file.upload.chunked.session-ttl-hours:24}")
+    private long sessionTtlHours;
+
+    @Value("${file.upload.chunked.max-sessions-per-user:5}")
+    private int maxSessionsPerUser;
+
+    @Value("${file.upload.chunked.lease-seconds:60}")
+    private long leaseSeconds;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private AttachmentService attachmentService;
+
+    @Autowired
+    private AttachmentStorage attachmentStorage;
+
+    @Autowired
+    private StorageUsageService storageUsageService;
+
+    private final Map<UUID, HashState> hashStates = new ConcurrentHashMap<>();
+
+    private final AtomicLong createdSessions = new AtomicLong();
+    private final AtomicLong completedSessions = new AtomicLong();
+    private final AtomicLong expiredSessions = new AtomicLong();
+    private final AtomicLong receivedBytes = new AtomicLong();
+    private final AtomicLong digestRebuilds = new AtomicLong();
+
+    public UploadSession createSession(UUID ticketId, User user, String fileName, String mimeType,
+                                       long totalSize, String declaredSha256) throws IOException {
+        if (totalSize <= 0 || totalSize > maxUploadSize) {
+            throw new IllegalArgumentException("Upload size must be between 1 and " + maxUploadSize + " bytes");
+        }
+        String declared = declaredSha256 != null ? declaredSha256.trim().toLowerCase() : null;
+        if (declared != null && !declared.matches("[0-9a-f]{64}")) {
+            throw new IllegalArgumentException("Declared SHA-256 must be 64 hex characters");
+        }
+        attachmentService.checkCanAttach(ticketId, user);
+        storageUsageService.checkQuota(user.getId(), ticketId, totalSize);
+        Integer active = jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM upload_sessions WHERE user_id = ? AND expires_at > CURRENT_TIMESTAMP",
+            Integer.class, user.getId());
+        if (active != null && active >= maxSessionsPerUser) {
+            throw new IllegalStateException("Too many uploads in progress, finish or cancel one first");
+        }
+
+        UUID id = UUID.randomUUID();
+        Path file = attachmentStorage.preallocate(sessionPath(id), totalSize);
+        try {
+            jdbcTemplate.update("INSERT INTO upload_sessions (" + SESSION_COLUMNS + ") VALUES (?, ?, ?, ?, ?, ?, 0, ?, ?)",
+                id, ticketId, user.getId(), AttachmentService.sanitizeFileName(fileName),
+                AttachmentService.normalizeMimeType(mimeType), totalSize, declared, nextExpiry());
+        } catch (DataAccessException e) {
+            attachmentStorage.delete(file);
+            throw e;
+        }
+        createdSessions.incrementAndGet();
+        logger.info("Started chunked upload {} ({} bytes) on ticket {} for user {}", id, totalSize, ticketId, user.getEmail());
+        return getSession(id, user);
+    }
+
+    public UploadSession getSession(UUID id, User user) {
+        List<UploadSession> sessions = jdbcTemplate.query(
+            "SELECT " + SESSION_COLUMNS + " FROM upload_sessions WHERE id = ? AND expires_at > CURRENT_TIMESTAMP",
+            sessionMapper(), id);
+        if (sessions.isEmpty()) {
+            throw new ResourceNotFoundException("Upload session not found with id: " + id);
+        }
+        UploadSession session = sessions.get(0);
+        if (!session.userId().equals(user.getId())) {
+            throw new UnauthorizedOperationException("You don't have permission to access this upload");
+        }
+        return session;
+    }
+
+    /**
+     * Writes one chunk, which must start exactly at the session's current offset. A chunk cut
+     * short by a failure is not counted; the client resumes from the returned offset.
+     */
+    public UploadSession putChunk(UUID id, User user, long offset, long contentLength,
+                                  InputStream content) throws IOException {
+        UploadSession session = getSession(id, user);
+        if (offset != session.offset()) {
+            throw new IllegalStateException("Chunk must start at offset " + session.offset());
+        }
+        long limit = Math.min(maxChunkSize, session.totalSize() - offset);
+        if (contentLength > limit) {
+            throw new IllegalArgumentException("Chunk exceeds the maximum of " + limit + " bytes");
+        }
+
+        HashState state = hashStates.computeIfAbsent(id, key -> new HashState());
+        if (!state.lock.tryLock()) {
+            throw new IllegalStateException("Another chunk for this upload is still being written");
+        }
+        try {
+            Path file = attachmentStorage.resolve(sessionPath(id));
+            catchUp(state, file, offset);
+            MessageDigest before = state.snapshot();
+            UUID holder = claimLease(id, offset);
+            long written;
+            try {
+                written = attachmentStorage.writeAt(file, offset, new LeasedInputStream(content, id, holder),
+                    limit, state.digest);
+            } catch (IOException | RuntimeException e) {
+                state.digest = before;
+                releaseLease(id, holder, e);
+                throw e;
+            }
+            if (jdbcTemplate.update("UPDATE upload_sessions SET received_bytes = ?, expires_at = ?, "
+                    + "lease_holder = NULL, lease_expires_at = NULL WHERE id = ? AND lease_holder = ?",
+                    offset + written, nextExpiry(), id, holder) == 0) {
+                state.digest = before;
+                throw new IllegalStateException("Upload lease expired while the chunk was written, resume from the current offset");
+            }
+            state.position = offset + written;
+            receivedBytes.addAndGet(written);
+        } finally {
+            state.lock.unlock();
+        }
+        return getSession(id, user);
+    }
+
+    /**
+     * Turns a fully received upload into an attachment. The session row is deleted in the
+     * same transaction that inserts the attachment, so a repeated call cannot attach twice.
+     */
+    public <T> T complete(UUID id, User user, Function<Attachment, T> mapper) throws IOException {
+        UploadSession session = getSession(id, user);
+        if (session.offset() != session.totalSize()) {
+            throw new IllegalStateException("Upload is incomplete: " + session.offset() + " of "
+                + session.totalSize() + " bytes received");
+        }
+
+        Path file = attachmentStorage.resolve(sessionPath(id));
+        HashState state = hashStates.computeIfAbsent(id, key -> new HashState());
+        if (!state.lock.tryLock()) {
+            throw new IllegalStateException("Another chunk for this upload is still being written");
+        }
+        String sha256;
+        try {
+            catchUp(state, file, session.totalSize());
+            sha256 = HexFormat.of().formatHex(state.snapshot().digest());
+        } finally {
+            state.lock.unlock();
+        }
+        if (session.declaredSha256() != null && !session.declaredSha256().equals(sha256)) {
+            cancel(id, user);
+            throw new IllegalArgumentException("Uploaded content does not match the declared SHA-256");
+        }
+
+        StagedFile staged = new StagedFile(file, session.totalSize(), sha256, null, session.totalSize());
+        T result = attachmentService.attachStagedFile(session.ticketId(), user, session.fileName(), session.mimeType(),
+            staged, () -> {
+                if (jdbcTemplate.update("DELETE FROM upload_sessions WHERE id = ?", id) == 0) {
+                    throw new ResourceNotFoundException("Upload session not found with id: " + id);
+                }
+            }, mapper);
+
+        // Still there when the content was already stored
+        attachmentStorage.delete(file);
+        hashStates.remove(id);
+        completedSessions.incrementAndGet();
+        return result;
+    }
+
+    public void cancel(UUID id, User user) {
+        getSession(id, user);
+        if (jdbcTemplate.update("DELETE FROM upload_sessions WHERE id = ?", id) > 0) {
+            discard(id);
+        }
+    }
+
+    // Also removes files whose session went with a deleted ticket or user
+    @Scheduled(fixedDelayString = "${file.upload.chunked.cleanup-interval-ms:900000}")
+    public void removeExpiredSessions() {
+        try {
+            List<UUID> expired = jdbcTemplate.queryForList(
+                "SELECT id FROM upload_sessions WHERE expires_at <= CURRENT_TIMESTAMP LIMIT 500", UUID.class);
+            for (UUID id : expired) {
+                if (jdbcTemplate.update("DELETE FROM upload_sessions WHERE id = ? AND expires_at <= CURRENT_TIMESTAMP", id) > 0) {
+                    discard(id);
+                    expiredSessions.incrementAndGet();
+                }
+            }
+            removeFilesWithoutSession();
+        } catch (DataAccessException | IOException e) {
+            logger.error("Upload session cleanup failed: {}", e.getMessage());
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("activeSessions", jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM upload_sessions WHERE expires_at > CURRENT_TIMESTAMP", Long.class));
+        stats.put("maxUploadSize", maxUploadSize);
+        stats.put("maxChunkSize", maxChunkSize);
+        stats.put("createdSessions", createdSessions.get());
+        stats.put("completedSessions", completedSessions.get());
+        stats.put("expiredSessions", expiredSessions.get());
+        stats.put("receivedBytes", receivedBytes.get());
+        stats.put("digestRebuilds", digestRebuilds.get());
+        return stats;
+    }
+
+    // Helper methods
+    private static String sessionPath(UUID id) {
+        return SESSION_DIR + "/" + id;
+    }
+
+    private Timestamp nextExpiry() {
+        return Timestamp.from(Instant.now().plus(sessionTtlHours, ChronoUnit.HOURS));
+    }
+
+    // Fails fast when another writer holds a live lease, instead of waiting for its client
+    private UUID claimLease(UUID id, long offset) {
+        UUID holder = UUID.randomUUID();
+        int claimed = jdbcTemplate.update(
+            "UPDATE upload_sessions SET lease_holder = ?, lease_expires_at = CURRENT_TIMESTAMP + make_interval(secs => ?) "
+                + "WHERE id = ? AND received_bytes = ? AND expires_at > CURRENT_TIMESTAMP "
+                + "AND (lease_holder IS NULL OR lease_expires_at <= CURRENT_TIMESTAMP)",
+            holder, leaseSeconds, id, offset);
+        if (claimed > 0) {
+            return holder;
+        }
+        List<Long> received = jdbcTemplate.queryForList(
+            "SELECT received_bytes FROM upload_sessions WHERE id = ? AND expires_at > CURRENT_TIMESTAMP", Long.class, id);
+        if (received.isEmpty()) {
+            throw new ResourceNotFoundException("Upload session not found with id: " + id);
+        }
+        if (received.get(0) != offset) {
+            throw new IllegalStateException("Chunk must start at offset " + received.get(0));
+        }
+        throw new IllegalStateException("Another chunk for this upload is still being written");
+    }
+
+    private void releaseLease(UUID id, UUID holder, Exception cause) {
+        try {
+            jdbcTemplate.update("UPDATE upload_sessions SET lease_holder = NULL, lease_expires_at = NULL "
+                + "WHERE id = ? AND lease_holder = ?", id, holder);
+        } catch (DataAccessException e) {
+            // The lease runs out on its own
+            cause.addSuppressed(e);
+        }
+    }
+
+    // Brings the digest up to offset, rehashing from disk when this node has not seen every chunk
+    private void catchUp(HashState state, Path file, long offset) throws IOException {
+        if (state.position == offset) {
+            return;
+        }
+        MessageDigest digest = AttachmentStorage.sha256();
+        attachmentStorage.hashPrefix(file, offset, digest);
+        state.digest = digest;
+        state.position = offset;
+        digestRebuilds.incrementAndGet();
+    }
+
+    private void discard(UUID id) {
+        hashStates.remove(id);
+        attachmentStorage.delete(sessionPath(id));
+    }
+
+    private void removeFilesWithoutSession() throws IOException {
+        Path dir = attachmentStorage.resolve(SESSION_DIR);
+        Instant cutoff = Instant.now().minus(sessionTtlHours, ChronoUnit.HOURS);
+        List<UUID> stale = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir)) {
+            for (Path file : files) {
+                try {
+                    if (Files.getLastModifiedTime(file).toInstant().isBefore(cutoff)) {
+                        stale.add(UUID.fromString(file.getFileName().toString()));
+                    }
+                } catch (IllegalArgumentException | NoSuchFileException e) {
+                    // Not a session file, or already gone
+                }
+                if (stale.size() >= 500) {
+                    break;
+                }
+            }
+        } catch (NoSuchFileException e) {
+            return;
+        }
+        for (UUID id : stale) {
+            Integer found = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM upload_sessions WHERE id = ?", Integer.class, id);
+            if (found != null && found == 0) {
+                discard(id);
+            }
+        }
+    }
+
+    private static RowMapper<UploadSession> sessionMapper() {
+        return (rs, rowNum) -> new UploadSession(
+            rs.getObject("id", UUID.class),
+            rs.getObject("ticket_id", UUID.class),
+            rs.getObject("user_id", UUID.class),
+            rs.getString("file_name"),
+            rs.getString("mime_type"),
+            rs.getLong("total_size"),
+            rs.getLong("received_bytes"),
+            rs.getString("declared_sha256"),
+            rs.getTimestamp("expires_at").toLocalDateTime());
+    }
+
+    // Renews the writer lease as the chunk arrives. Checked after each read returns, so bytes
+    // read after another writer took over the lease are never handed on to be written.
+    private class LeasedInputStream extends FilterInputStream {
+        private final UUID id;
+        private final UUID holder;
+        private long renewedAt = System.nanoTime();
+
+        LeasedInputStream(InputStream in, UUID id, UUID holder) {
+            super(in);
+            this.id = id;
+            this.holder = holder;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            renewIfDue();
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int read = super.read(b, off, len);
+            renewIfDue();
+            return read;
+        }
+
+        private void renewIfDue() {
+            if (System.nanoTime() - renewedAt < TimeUnit.SECONDS.toNanos(leaseSeconds) / 4) {
+                return;
+            }
+            if (jdbcTemplate.update("UPDATE upload_sessions SET lease_expires_at = CURRENT_TIMESTAMP + make_interval(secs => ?) "
+                    + "WHERE id = ? AND lease_holder = ?", leaseSeconds, id, holder) == 0) {
+                throw new IllegalStateException("Upload lease expired while the chunk was written, resume from the current offset");
+            }
+            renewedAt = System.nanoTime();
+        }
+    }
+
+    // Digest of the bytes before position; guarded by lock
+    private static class HashState {
+        private final ReentrantLock lock = new ReentrantLock();
+        private MessageDigest digest = AttachmentStorage.sha256();
+        private long position;
+
+        MessageDigest snapshot() {
+            try {
+                return (MessageDigest) digest.clone();
+            } catch (CloneNotSupportedException e) {
+                throw new IllegalStateException("SHA-256 digest cannot be copied", e);
+            }
+        }
+    }
+
+    public record UploadSession(UUID id, UUID ticketId, UUID userId, String fileName, String mimeType,
+                                long totalSize, long offset, String declaredSha256, LocalDateTime expiresAt) {
+    }
+}
@@ -1,5 +1,6 @@
 package com.ticketsystem.service;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
 
@@ -9,6 +10,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -20,10 +22,12 @@ import com.ticketsystem.entity.UserRole;
 import com.ticketsystem.exception.ResourceNotFoundException;
 import com.ticketsystem.exception.UserAlreadyExistsException;
 import com.ticketsystem.repository.UserRepository;
+import com.ticketsystem.security.TokenRevocationList;
+import com.ticketsystem.security.UserPrincipalCache;
 
 @Service
 @Transactional
-public class UserService implements UserDetailsService {
+public class UserService implements UserDetailsService, UserDetailsPasswordService {
 
     private static final Logger logger = LoggerFactory.getLogger(UserService.class);
 
@@ -33,12 +37,31 @@ public class UserService implements UserDetailsService {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private UserPrincipalCache userPrincipalCache;
+
+    @Autowired
+    private TokenRevocationList tokenRevocationList;
+
     @Override
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
         return userRepository.findByEmailAndIsActiveTrue(email)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found with email: " + email));
     }
 
+    // Called after a successful login when the stored hash uses an outdated cost
+    @Override
+    public UserDetails updatePassword(UserDetails userDetails, String newEncodedPassword) {
+        User user = userRepository.findByEmailAndIsActiveTrue(userDetails.getUsername())
+                .orElseThrow(() -> new UsernameNotFoundException("User not found with email: " + userDetails.getUsername()));
+        user.setPassword(newEncodedPassword);
+        userPrincipalCache.evict(user.getEmail());
+
+        User updatedUser = userRepository.save(user);
+        logger.info("Rehashed password for user with id: {}", user.getId());
+        return updatedUser;
+    }
+
     public User createUser(String email, String password, String firstName, String lastName, UserRole role) {
         if (userRepository.existsByEmail(email)) {
             throw new UserAlreadyExistsException("User already exists with email: " + email);
@@ -101,6 +124,11 @@ public class UserService implements UserDetailsService {
         if (!user.getEmail().equals(email) && userRepository.existsByEmail(email)) {
             throw new UserAlreadyExistsException("User already exists with email: " + email);
         }
+        userPrincipalCache.evict(user.getEmail());
+        if (!user.getEmail().equals(email)) {
+            // Existing tokens carry the old email as their subject
+            revokeExistingTokens(user);
+        }
 
         user.setFirstName(firstName);
         user.setLastName(lastName);
@@ -114,6 +142,8 @@ public class UserService implements UserDetailsService {
     public User updateUserRole(UUID id, UserRole role) {
         User user = getUserById(id);
         user.setRole(role);
+        userPrincipalCache.evict(user.getEmail());
+        revokeExistingTokens(user);
 
         User updatedUser = userRepository.save(user);
         logger.info("Updated user role for id: {} to {}", id, role);
@@ -123,6 +153,8 @@ public class UserService implements UserDetailsService {
     public User updateUserPassword(UUID id, String newPassword) {
         User user = getUserById(id);
         user.setPassword(passwordEncoder.encode(newPassword));
+        userPrincipalCache.evict(user.getEmail());
+        revokeExistingTokens(user);
 
         User updatedUser = userRepository.save(user);
         logger.info("Updated password for user with id: {}", id);
@@ -132,6 +164,8 @@ public class UserService implements UserDetailsService {
     public User deactivateUser(UUID id) {
         User user = getUserById(id);
         user.setIsActive(false);
+        userPrincipalCache.evict(user.getEmail());
+        revokeExistingTokens(user);
 
         User updatedUser = userRepository.save(user);
         logger.info("Deactivated user with id: {}", id);
@@ -150,6 +184,8 @@ public class UserService implements UserDetailsService {
     public void deleteUser(UUID id) {
         User user = getUserById(id);
         userRepository.delete(user);
+        userPrincipalCache.evict(user.getEmail());
+        tokenRevocationList.recordDeletedUser(user.getId());
         logger.info("Deleted user with id: {}", id);
     }
 
@@ -172,4 +208,10 @@ public class UserService implements UserDetailsService {
         // For now, return 0 as placeholder
         return 0L;
     }
+
+    // Helper methods
+    private void revokeExistingTokens(User user) {
+        user.setTokensValidAfter(LocalDateTime.now());
+        tokenRevocationList.update(user.getId(), user.getIsActive(), user.getTokensValidAfter());
+    }
 }
@@ -0,0 +1,42 @@
+-- Content-addressed attachment storage. Each distinct content is stored once, at
+-- blobs/<2 hex>/<2 hex>/<sha256> under the upload directory, and attachment rows
+-- point at it through file_path and content_hash.
+CREATE TABLE blobs (
+    hash CHAR(64) PRIMARY KEY,
+    size BIGINT NOT NULL,
+    ref_count INTEGER NOT NULL DEFAULT 0,
+    created_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Lets the reclaimer find blobs nothing points at any more
+CREATE INDEX idx_blobs_unreferenced ON blobs(created_at) WHERE ref_count = 0;
+
+-- Reference counts follow the attachment rows themselves, so ticket deletes
+-- (which cascade) and archive moves keep them right without application code.
+-- Rows whose file_path is not a blob path predate the blob store and are not counted.
+CREATE OR REPLACE FUNCTION adjust_blob_ref_count()
+RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP IN ('UPDATE', 'DELETE') THEN
+        IF OLD.file_path LIKE 'blobs/%' THEN
+            UPDATE blobs SET ref_count = ref_count - 1 WHERE hash = OLD.content_hash;
+        END IF;
+    END IF;
+    IF TG_OP IN ('INSERT', 'UPDATE') THEN
+        IF NEW.file_path LIKE 'blobs/%' THEN
+            UPDATE blobs SET ref_count = ref_count + 1 WHERE hash = NEW.content_hash;
+        END IF;
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER attachments_blob_ref_count
+    AFTER INSERT OR DELETE OR UPDATE OF file_path, content_hash ON attachments
+    FOR EACH ROW EXECUTE FUNCTION adjust_blob_ref_count();
+
+CREATE TRIGGER archived_attachments_blob_ref_count
+    AFTER INSERT OR DELETE OR UPDATE OF file_path, content_hash ON archived_attachments
+    FOR EACH ROW EXECUTE FUNCTION adjust_blob_ref_count();
+
+CREATE INDEX idx_attachments_content_hash ON attachments(content_hash);
@@ -0,0 +1,62 @@
+-- Running totals of attachment bytes per uploader and per ticket, so quotas and
+-- admin reports never have to sum the attachment tables. Archived attachments
+-- still occupy storage and are counted with the hot ones.
+CREATE TABLE storage_usage (
+    scope VARCHAR(10) NOT NULL CHECK (scope IN ('USER', 'TICKET')),
+    owner_id UUID NOT NULL,
+    bytes BIGINT NOT NULL DEFAULT 0,
+    attachment_count BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (scope, owner_id)
+);
+
+INSERT INTO storage_usage (scope, owner_id, bytes, attachment_count)
+SELECT 'USER', uploaded_by_id, SUM(file_size), COUNT(*)
+FROM (SELECT uploaded_by_id, file_size FROM attachments
+      UNION ALL SELECT uploaded_by_id, file_size FROM archived_attachments) a
+GROUP BY uploaded_by_id;
+
+INSERT INTO storage_usage (scope, owner_id, bytes, attachment_count)
+SELECT 'TICKET', ticket_id, SUM(file_size), COUNT(*)
+FROM (SELECT ticket_id, file_size FROM attachments
+      UNION ALL SELECT ticket_id, file_size FROM archived_attachments) a
+GROUP BY ticket_id;
+
+-- Rows that drop to no attachments are removed, so deleted tickets and users leave nothing behind
+CREATE OR REPLACE FUNCTION add_storage_usage(p_scope VARCHAR, p_owner_id UUID, p_bytes BIGINT, p_count BIGINT)
+RETURNS VOID AS $$
+BEGIN
+    INSERT INTO storage_usage (scope, owner_id, bytes, attachment_count)
+    VALUES (p_scope, p_owner_id, p_bytes, p_count)
+    ON CONFLICT (scope, owner_id) DO UPDATE
+        SET bytes = storage_usage.bytes + EXCLUDED.bytes,
+            attachment_count = storage_usage.attachment_count + EXCLUDED.attachment_count;
+    IF p_count < 0 THEN
+        DELETE FROM storage_usage WHERE scope = p_scope AND owner_id = p_owner_id AND attachment_count <= 0;
+    END IF;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Like the blob counts, these follow the rows themselves, so cascading deletes
+-- and archive moves are accounted for without application code.
+CREATE OR REPLACE FUNCTION adjust_storage_usage()
+RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP IN ('UPDATE', 'DELETE') THEN
+        PERFORM add_storage_usage('TICKET', OLD.ticket_id, -OLD.file_size, -1);
+        PERFORM add_storage_usage('USER', OLD.uploaded_by_id, -OLD.file_size, -1);
+    END IF;
+    IF TG_OP IN ('INSERT', 'UPDATE') THEN
+        PERFORM add_storage_usage('TICKET', NEW.ticket_id, NEW.file_size, 1);
+        PERFORM add_storage_usage('USER', NEW.uploaded_by_id, NEW.file_size, 1);
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER attachments_storage_usage
+    AFTER INSERT OR DELETE OR UPDATE OF file_size, ticket_id, uploaded_by_id ON attachments
+    FOR EACH ROW EXECUTE FUNCTION adjust_storage_usage();
+
+CREATE TRIGGER archived_attachments_storage_usage
+    AFTER INSERT OR DELETE OR UPDATE OF file_size, ticket_id, uploaded_by_id ON archived_attachments
+    FOR EACH ROW EXECUTE FUNCTION adjust_storage_usage();
@@ -0,0 +1,9 @@
+-- Compressible attachments are stored gzip-encoded. content_hash and file_size keep
+-- describing the original content; NULL encoding means the bytes are stored as-is.
+ALTER TABLE blobs ADD COLUMN encoding VARCHAR(10);
+ALTER TABLE blobs ADD COLUMN stored_size BIGINT;
+UPDATE blobs SET stored_size = size;
+ALTER TABLE blobs ALTER COLUMN stored_size SET NOT NULL;
+
+ALTER TABLE attachments ADD COLUMN content_encoding VARCHAR(10);
+ALTER TABLE archived_attachments ADD COLUMN content_encoding VARCHAR(10);
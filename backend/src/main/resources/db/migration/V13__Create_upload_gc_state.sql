@@ -0,0 +1,20 @@
+-- Progress of the orphaned upload file collector. A single row, locked by whichever
+-- node runs the next slice, so the walk resumes where it stopped after a restart.
+CREATE TABLE upload_gc_state (
+    id SMALLINT PRIMARY KEY CHECK (id = 1),
+    checkpoint TEXT,
+    pass_started_at TIMESTAMP WITH TIME ZONE,
+    pass_files BIGINT NOT NULL DEFAULT 0,
+    pass_orphans BIGINT NOT NULL DEFAULT 0,
+    pass_orphan_bytes BIGINT NOT NULL DEFAULT 0,
+    last_pass_completed_at TIMESTAMP WITH TIME ZONE,
+    last_pass_files BIGINT NOT NULL DEFAULT 0,
+    last_pass_orphans BIGINT NOT NULL DEFAULT 0,
+    last_pass_orphan_bytes BIGINT NOT NULL DEFAULT 0
+);
+
+INSERT INTO upload_gc_state (id) VALUES (1);
+
+-- Legacy (non-blob) files are looked up by path in batches
+CREATE INDEX idx_attachments_file_path ON attachments(file_path);
+CREATE INDEX idx_archived_attachments_file_path ON archived_attachments(file_path);
@@ -0,0 +1,14 @@
+-- Text extracted from the first part of text-like attachments, once per stored
+-- content, so ticket search can match attachment contents without reading files.
+-- Rows go with their blob.
+CREATE TABLE attachment_texts (
+    content_hash CHAR(64) PRIMARY KEY REFERENCES blobs(hash) ON DELETE CASCADE,
+    content TEXT NOT NULL,
+    truncated BOOLEAN NOT NULL,
+    extracted_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    -- 'simple' keeps identifiers and error codes as written; strip drops word positions,
+    -- which term matching does not use, to keep large logs under the tsvector size limit
+    search_vector TSVECTOR GENERATED ALWAYS AS (strip(to_tsvector('simple', content))) STORED
+);
+
+CREATE INDEX idx_attachment_texts_search ON attachment_texts USING GIN (search_vector);
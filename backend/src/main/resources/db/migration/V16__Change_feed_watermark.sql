@@ -0,0 +1,42 @@
+-- change_seq values are taken when a row is written but become visible when the
+-- transaction commits, so a lower value can appear after a higher one was read.
+-- Every transaction that takes a value first holds a shared advisory lock keyed by
+-- a lower bound of its values. The change feed only reads up to the lowest such
+-- key still held, which no open transaction can write below.
+CREATE OR REPLACE FUNCTION next_change_seq()
+RETURNS BIGINT AS $$
+DECLARE
+    lowest BIGINT;
+BEGIN
+    IF COALESCE(current_setting('change_feed.lowest_seq', true), '') = '' THEN
+        -- Read before nextval, so the key is never above the value this transaction gets
+        SELECT CASE WHEN is_called THEN last_value + 1 ELSE last_value END INTO lowest FROM change_seq;
+        PERFORM pg_advisory_xact_lock_shared(lowest);
+        PERFORM set_config('change_feed.lowest_seq', lowest::text, true);
+    END IF;
+    RETURN nextval('change_seq');
+END;
+$$ language 'plpgsql';
+
+-- Highest change_seq below which every value is either committed or rolled back
+CREATE OR REPLACE FUNCTION change_seq_watermark()
+RETURNS BIGINT AS $$
+    SELECT LEAST(
+        (SELECT CASE WHEN is_called THEN last_value ELSE 0 END FROM change_seq),
+        (SELECT MIN((l.classid::BIGINT << 32) | l.objid::BIGINT) - 1
+         FROM pg_locks l
+         WHERE l.locktype = 'advisory' AND l.objsubid = 1 AND l.granted
+           AND l.database = (SELECT oid FROM pg_database WHERE datname = current_database())));
+$$ language 'sql' VOLATILE;
+
+ALTER TABLE tickets ALTER COLUMN change_seq SET DEFAULT next_change_seq();
+ALTER TABLE comments ALTER COLUMN change_seq SET DEFAULT next_change_seq();
+ALTER TABLE change_tombstones ALTER COLUMN change_seq SET DEFAULT next_change_seq();
+
+CREATE OR REPLACE FUNCTION bump_change_seq()
+RETURNS TRIGGER AS $$
+BEGIN
+    NEW.change_seq = next_change_seq();
+    RETURN NEW;
+END;
+$$ language 'plpgsql';
@@ -0,0 +1,17 @@
+-- The partitioned comments table can only enforce (id, created_at) as unique, so
+-- check id on insert. Each partition answers from its primary key index. Concurrent
+-- inserts of the same id are not caught; ids are random UUIDs, so this only guards
+-- against a writer reusing one.
+CREATE OR REPLACE FUNCTION reject_duplicate_comment_id()
+RETURNS TRIGGER AS $$
+BEGIN
+    IF EXISTS (SELECT 1 FROM comments WHERE id = NEW.id) THEN
+        RAISE EXCEPTION 'Comment id % already exists', NEW.id USING ERRCODE = 'unique_violation';
+    END IF;
+    RETURN NEW;
+END;
+$$ language 'plpgsql';
+
+CREATE TRIGGER reject_duplicate_comment_id
+    BEFORE INSERT ON comments
+    FOR EACH ROW EXECUTE FUNCTION reject_duplicate_comment_id();
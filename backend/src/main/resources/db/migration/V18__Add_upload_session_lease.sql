@@ -0,0 +1,5 @@
+-- Writer lease for chunked uploads. A node claims it at received_bytes before writing
+-- a chunk and clears it when it advances the offset, so no row lock (and no database
+-- connection) is held while the chunk arrives from the client.
+ALTER TABLE upload_sessions ADD COLUMN lease_holder UUID;
+ALTER TABLE upload_sessions ADD COLUMN lease_expires_at TIMESTAMP WITH TIME ZONE;
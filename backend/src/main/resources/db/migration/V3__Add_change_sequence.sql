@@ -0,0 +1,39 @@
+-- Global, monotonic change sequence shared by tickets, comments and tombstones
+CREATE SEQUENCE change_seq;
+
+ALTER TABLE tickets ADD COLUMN change_seq BIGINT NOT NULL DEFAULT nextval('change_seq');
+ALTER TABLE comments ADD COLUMN change_seq BIGINT NOT NULL DEFAULT nextval('change_seq');
+
+CREATE INDEX idx_tickets_change_seq ON tickets(change_seq);
+CREATE INDEX idx_comments_change_seq ON comments(change_seq);
+
+-- Create tombstones for deleted tickets and comments
+CREATE TABLE change_tombstones (
+    change_seq BIGINT PRIMARY KEY DEFAULT nextval('change_seq'),
+    entity_type VARCHAR(20) NOT NULL,
+    entity_id UUID NOT NULL,
+    ticket_id UUID NOT NULL,
+    created_by_id UUID,
+    assigned_to_id UUID,
+    deleted_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX idx_tombstones_created_by ON change_tombstones(created_by_id);
+CREATE INDEX idx_tombstones_assigned_to ON change_tombstones(assigned_to_id);
+
+-- Create function to move a row to the head of the change sequence on every update
+CREATE OR REPLACE FUNCTION bump_change_seq()
+RETURNS TRIGGER AS $$
+BEGIN
+    NEW.change_seq = nextval('change_seq');
+    RETURN NEW;
+END;
+$$ language 'plpgsql';
+
+CREATE TRIGGER bump_tickets_change_seq
+    BEFORE UPDATE ON tickets
+    FOR EACH ROW EXECUTE FUNCTION bump_change_seq();
+
+CREATE TRIGGER bump_comments_change_seq
+    BEFORE UPDATE ON comments
+    FOR EACH ROW EXECUTE FUNCTION bump_change_seq();
@@ -0,0 +1,16 @@
+-- Create transactional outbox for ticket and comment changes
+CREATE TABLE outbox_events (
+    id BIGSERIAL PRIMARY KEY,
+    aggregate_type VARCHAR(50) NOT NULL,
+    aggregate_id UUID NOT NULL,
+    event_type VARCHAR(50) NOT NULL,
+    payload TEXT NOT NULL,
+    attempts INTEGER NOT NULL DEFAULT 0,
+    last_error TEXT,
+    created_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    available_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    failed_at TIMESTAMP WITH TIME ZONE
+);
+
+-- Only pending events are polled; delivered events are deleted
+CREATE INDEX idx_outbox_events_pending ON outbox_events(available_at, id) WHERE failed_at IS NULL;
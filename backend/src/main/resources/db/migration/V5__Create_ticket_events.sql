@@ -0,0 +1,35 @@
+-- Create append-only audit log for ticket changes
+CREATE TABLE ticket_events (
+    id BIGSERIAL PRIMARY KEY,
+    ticket_id UUID NOT NULL REFERENCES tickets(id) ON DELETE CASCADE,
+    event_type VARCHAR(30) NOT NULL,
+    actor_id UUID REFERENCES users(id) ON DELETE SET NULL,
+    old_value TEXT,
+    new_value TEXT,
+    created_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX idx_ticket_events_ticket ON ticket_events(ticket_id, created_at);
+
+-- Move legacy "[SYSTEM]" comments into the audit log. Creation entries keep their
+-- meaning; everything else was free text and is carried over as a note.
+INSERT INTO ticket_events (ticket_id, event_type, actor_id, new_value, created_at)
+SELECT c.ticket_id, 'CREATED', t.created_by_id, 'OPEN', c.created_at
+FROM comments c
+JOIN tickets t ON t.id = c.ticket_id
+WHERE c.content LIKE '[SYSTEM] Ticket created by %';
+
+INSERT INTO ticket_events (ticket_id, event_type, new_value, created_at)
+SELECT c.ticket_id, 'NOTE', substring(c.content from 10), c.created_at
+FROM comments c
+WHERE c.content LIKE '[SYSTEM]%'
+  AND c.content NOT LIKE '[SYSTEM] Ticket created by %';
+
+-- Record deletions so change feed clients drop the migrated comments too
+INSERT INTO change_tombstones (entity_type, entity_id, ticket_id, created_by_id, assigned_to_id)
+SELECT 'COMMENT', c.id, c.ticket_id, t.created_by_id, t.assigned_to_id
+FROM comments c
+JOIN tickets t ON t.id = c.ticket_id
+WHERE c.content LIKE '[SYSTEM]%';
+
+DELETE FROM comments WHERE content LIKE '[SYSTEM]%';
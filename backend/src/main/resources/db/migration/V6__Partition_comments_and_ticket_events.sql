@@ -0,0 +1,116 @@
+-- Partition comments and ticket_events by month on created_at (PostgreSQL 13+).
+-- Partition bounds are UTC month boundaries; rows outside every monthly partition
+-- land in the default partition. The application creates partitions ahead of time.
+
+-- Create the monthly partition of a table that covers the given date, if missing
+CREATE OR REPLACE FUNCTION create_monthly_partition(parent_table TEXT, month_of DATE)
+RETURNS TEXT AS $$
+DECLARE
+    month_start DATE := date_trunc('month', month_of)::DATE;
+    partition_name TEXT := parent_table || '_p' || to_char(month_start, 'YYYYMM');
+BEGIN
+    IF to_regclass(partition_name) IS NULL THEN
+        EXECUTE format('CREATE TABLE %I PARTITION OF %I FOR VALUES FROM (%L) TO (%L)',
+            partition_name, parent_table,
+            month_start::TIMESTAMP AT TIME ZONE 'UTC',
+            (month_start + INTERVAL '1 month')::TIMESTAMP AT TIME ZONE 'UTC');
+    END IF;
+    RETURN partition_name;
+END;
+$$ language 'plpgsql';
+
+-- Comments: the partition key has to be part of the primary key
+CREATE TABLE comments_partitioned (
+    id UUID NOT NULL DEFAULT gen_random_uuid(),
+    content TEXT NOT NULL,
+    ticket_id UUID NOT NULL REFERENCES tickets(id) ON DELETE CASCADE,
+    author_id UUID NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+    created_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    change_seq BIGINT NOT NULL DEFAULT nextval('change_seq')
+) PARTITION BY RANGE (created_at);
+
+-- Ticket events: keep the id sequence when the old table is dropped
+ALTER SEQUENCE ticket_events_id_seq OWNED BY NONE;
+
+CREATE TABLE ticket_events_partitioned (
+    id BIGINT NOT NULL DEFAULT nextval('ticket_events_id_seq'),
+    ticket_id UUID NOT NULL REFERENCES tickets(id) ON DELETE CASCADE,
+    event_type VARCHAR(30) NOT NULL,
+    actor_id UUID REFERENCES users(id) ON DELETE SET NULL,
+    old_value TEXT,
+    new_value TEXT,
+    created_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP
+) PARTITION BY RANGE (created_at);
+
+-- Create monthly partitions from the oldest row up to three months ahead
+DO $$
+DECLARE
+    first_month DATE;
+    partition_month DATE;
+BEGIN
+    SELECT date_trunc('month', LEAST(
+        (SELECT MIN(created_at) FROM comments),
+        (SELECT MIN(created_at) FROM ticket_events),
+        CURRENT_TIMESTAMP) AT TIME ZONE 'UTC')::DATE
+    INTO first_month;
+
+    partition_month := first_month;
+    WHILE partition_month <= (date_trunc('month', CURRENT_TIMESTAMP AT TIME ZONE 'UTC') + INTERVAL '3 months')::DATE LOOP
+        PERFORM create_monthly_partition('comments_partitioned', partition_month);
+        PERFORM create_monthly_partition('ticket_events_partitioned', partition_month);
+        partition_month := (partition_month + INTERVAL '1 month')::DATE;
+    END LOOP;
+END $$;
+
+CREATE TABLE comments_partitioned_default PARTITION OF comments_partitioned DEFAULT;
+CREATE TABLE ticket_events_partitioned_default PARTITION OF ticket_events_partitioned DEFAULT;
+
+-- Copy existing rows; change_seq is carried over so change feed cursors stay valid
+INSERT INTO comments_partitioned (id, content, ticket_id, author_id, created_at, updated_at, change_seq)
+SELECT id, content, ticket_id, author_id, created_at, updated_at, change_seq FROM comments;
+
+INSERT INTO ticket_events_partitioned (id, ticket_id, event_type, actor_id, old_value, new_value, created_at)
+SELECT id, ticket_id, event_type, actor_id, old_value, new_value, created_at FROM ticket_events;
+
+DROP TABLE comments;
+DROP TABLE ticket_events;
+
+ALTER TABLE comments_partitioned RENAME TO comments;
+ALTER TABLE ticket_events_partitioned RENAME TO ticket_events;
+ALTER SEQUENCE ticket_events_id_seq OWNED BY ticket_events.id;
+
+-- Partition names follow the parent table
+DO $$
+DECLARE
+    part RECORD;
+BEGIN
+    FOR part IN
+        SELECT c.relname
+        FROM pg_inherits i
+        JOIN pg_class c ON c.oid = i.inhrelid
+        WHERE i.inhparent IN ('comments'::regclass, 'ticket_events'::regclass)
+    LOOP
+        EXECUTE format('ALTER TABLE %I RENAME TO %I', part.relname, replace(part.relname, '_partitioned', ''));
+    END LOOP;
+END $$;
+
+ALTER TABLE comments ADD PRIMARY KEY (id, created_at);
+ALTER TABLE ticket_events ADD PRIMARY KEY (id, created_at);
+
+-- Ticket lookups read the ticket's comments in order from the partitions they span
+CREATE INDEX idx_comments_ticket_id ON comments(ticket_id, created_at);
+CREATE INDEX idx_comments_author_id ON comments(author_id);
+CREATE INDEX idx_comments_created_at ON comments(created_at);
+CREATE INDEX idx_comments_change_seq ON comments(change_seq);
+
+CREATE INDEX idx_ticket_events_ticket ON ticket_events(ticket_id, created_at);
+
+-- Row triggers on the parent are cloned onto every partition
+CREATE TRIGGER update_comments_updated_at
+    BEFORE UPDATE ON comments
+    FOR EACH ROW EXECUTE FUNCTION update_updated_at_column();
+
+CREATE TRIGGER bump_comments_change_seq
+    BEFORE UPDATE ON comments
+    FOR EACH ROW EXECUTE FUNCTION bump_change_seq();
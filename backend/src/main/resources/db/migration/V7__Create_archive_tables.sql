@@ -0,0 +1,69 @@
+-- Cold tier for closed tickets. Rows are moved here with their children and keep
+-- their ids, so an archived ticket can be read through or restored unchanged.
+CREATE TABLE archived_tickets (
+    id UUID PRIMARY KEY,
+    subject VARCHAR(255) NOT NULL,
+    description TEXT NOT NULL,
+    status ticket_status NOT NULL,
+    priority ticket_priority NOT NULL,
+    created_by_id UUID NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+    assigned_to_id UUID REFERENCES users(id) ON DELETE SET NULL,
+    created_at TIMESTAMP WITH TIME ZONE NOT NULL,
+    updated_at TIMESTAMP WITH TIME ZONE NOT NULL,
+    resolved_at TIMESTAMP WITH TIME ZONE,
+    closed_at TIMESTAMP WITH TIME ZONE,
+    change_seq BIGINT NOT NULL,
+    archived_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE TABLE archived_comments (
+    id UUID PRIMARY KEY,
+    content TEXT NOT NULL,
+    ticket_id UUID NOT NULL REFERENCES archived_tickets(id) ON DELETE CASCADE,
+    author_id UUID NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+    created_at TIMESTAMP WITH TIME ZONE NOT NULL,
+    updated_at TIMESTAMP WITH TIME ZONE NOT NULL,
+    change_seq BIGINT NOT NULL
+);
+
+CREATE TABLE archived_attachments (
+    id UUID PRIMARY KEY,
+    file_name VARCHAR(255) NOT NULL,
+    original_file_name VARCHAR(255) NOT NULL,
+    file_size BIGINT NOT NULL,
+    mime_type VARCHAR(100) NOT NULL,
+    file_path VARCHAR(500) NOT NULL,
+    ticket_id UUID NOT NULL REFERENCES archived_tickets(id) ON DELETE CASCADE,
+    uploaded_by_id UUID NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+    created_at TIMESTAMP WITH TIME ZONE NOT NULL
+);
+
+CREATE TABLE archived_ticket_ratings (
+    id UUID PRIMARY KEY,
+    rating INTEGER NOT NULL,
+    feedback TEXT,
+    ticket_id UUID NOT NULL REFERENCES archived_tickets(id) ON DELETE CASCADE,
+    rated_by_id UUID NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+    created_at TIMESTAMP WITH TIME ZONE NOT NULL
+);
+
+CREATE TABLE archived_ticket_events (
+    id BIGINT PRIMARY KEY,
+    ticket_id UUID NOT NULL REFERENCES archived_tickets(id) ON DELETE CASCADE,
+    event_type VARCHAR(30) NOT NULL,
+    actor_id UUID REFERENCES users(id) ON DELETE SET NULL,
+    old_value TEXT,
+    new_value TEXT,
+    created_at TIMESTAMP WITH TIME ZONE NOT NULL
+);
+
+CREATE INDEX idx_archived_tickets_created_by ON archived_tickets(created_by_id, closed_at);
+CREATE INDEX idx_archived_tickets_assigned_to ON archived_tickets(assigned_to_id, closed_at);
+CREATE INDEX idx_archived_tickets_closed_at ON archived_tickets(closed_at);
+CREATE INDEX idx_archived_comments_ticket_id ON archived_comments(ticket_id);
+CREATE INDEX idx_archived_attachments_ticket_id ON archived_attachments(ticket_id);
+CREATE INDEX idx_archived_ratings_ticket_id ON archived_ticket_ratings(ticket_id);
+CREATE INDEX idx_archived_ticket_events_ticket_id ON archived_ticket_events(ticket_id);
+
+-- Lets the archiver find candidates without scanning open tickets
+CREATE INDEX idx_tickets_closed_at ON tickets(closed_at) WHERE status = 'CLOSED';
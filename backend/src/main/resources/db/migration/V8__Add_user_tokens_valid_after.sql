@@ -0,0 +1,13 @@
+-- Tokens issued before this instant are rejected in stateless principal mode.
+-- Set when a user's password, role or email changes and when the user is deactivated.
+ALTER TABLE users ADD COLUMN tokens_valid_after TIMESTAMP WITH TIME ZONE;
+
+-- Only recent changes and inactive users can affect unexpired tokens
+CREATE INDEX idx_users_tokens_valid_after ON users(tokens_valid_after) WHERE tokens_valid_after IS NOT NULL;
+
+-- Deleted users have no row left to carry the flag; their tokens are revoked here
+-- until they would have expired anyway
+CREATE TABLE deleted_user_revocations (
+    user_id UUID PRIMARY KEY,
+    revoked_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
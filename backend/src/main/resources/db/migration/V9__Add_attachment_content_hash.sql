@@ -0,0 +1,4 @@
+-- SHA-256 of the stored bytes, computed while an upload streams to disk.
+-- Null for files uploaded before hashing existed.
+ALTER TABLE attachments ADD COLUMN content_hash CHAR(64);
+ALTER TABLE archived_attachments ADD COLUMN content_hash CHAR(64);